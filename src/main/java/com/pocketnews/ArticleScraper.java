@@ -0,0 +1,515 @@
+package com.pocketnews;
+
+import jakarta.annotation.PreDestroy;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fetches full article text for RSS items that survived dedupe.
+ *
+ * Scraping used to happen inline while parsing every feed item, including
+ * ones we already had. It now runs as its own stage with an overall limit,
+ * a per-host limit and a minimum gap between requests to the same host.
+ */
+@Component
+public class ArticleScraper {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleScraper.class);
+
+    private static final String USER_AGENT = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36";
+    private static final int TIMEOUT_MS = 5000;
+    private static final int MAX_CONTENT_CHARS = 2500;
+    static final String NOISE = "script, style, nav, header, footer, aside, .ad, .advertisement";
+
+    private final Semaphore globalPermits;
+    private final int maxPerHost;
+    private final long hostDelayMs;
+    private final int minDescriptionChars;
+    private final boolean streaming;
+    private final int maxBodyBytes;
+
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofMillis(TIMEOUT_MS))
+            .build();
+
+    // Closes response bodies that outlive TIMEOUT_MS; see closeAtDeadline
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("scrape-watchdog").daemon().factory());
+
+    private final ScrapeDomainStats domainStats;
+    private final ExtractionTemplateCache templates;
+    private final ReplayStore replayStore;
+
+    public ArticleScraper(
+            ScrapeDomainStats domainStats,
+            ExtractionTemplateCache templates,
+            ReplayStore replayStore,
+            @Value("${app.scrape.max-concurrent:8}") int maxConcurrent,
+            @Value("${app.scrape.max-per-host:2}") int maxPerHost,
+            @Value("${app.scrape.host-delay-ms:500}") long hostDelayMs,
+            @Value("${app.scrape.min-description-chars:400}") int minDescriptionChars,
+            @Value("${app.scrape.mode:stream}") String mode,
+            @Value("${app.scrape.max-body-bytes:1048576}") int maxBodyBytes) {
+        this.domainStats = domainStats;
+        this.templates = templates;
+        this.replayStore = replayStore;
+        this.globalPermits = new Semaphore(Math.max(1, maxConcurrent));
+        this.maxPerHost = Math.max(1, maxPerHost);
+        this.hostDelayMs = hostDelayMs;
+        this.minDescriptionChars = minDescriptionChars;
+        this.streaming = !"dom".equalsIgnoreCase(mode);
+        this.maxBodyBytes = Math.max(16 * 1024, maxBodyBytes);
+        logger.info("Article scraping in {} mode, body capped at {} KB",
+                streaming ? "stream" : "dom", this.maxBodyBytes / 1024);
+    }
+
+    private static final class HostState {
+        private final Semaphore permits;
+        // Earliest time the next request to this host may start
+        private final AtomicLong nextSlot = new AtomicLong();
+
+        private HostState(int maxPerHost) {
+            this.permits = new Semaphore(maxPerHost);
+        }
+    }
+
+    /**
+     * Fills in fullContent for each article, scraping in parallel within the
+     * configured limits. Returns the articles in the order given.
+     */
+    public List<RssFeedClient.RawArticle> scrapeAll(List<RssFeedClient.RawArticle> articles) {
+        if (articles.isEmpty()) return articles;
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            List<Future<RssFeedClient.RawArticle>> futures = new ArrayList<>();
+            for (RssFeedClient.RawArticle article : articles) {
+                futures.add(executor.submit(() -> scrapeOne(article)));
+            }
+
+            List<RssFeedClient.RawArticle> scraped = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    scraped.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    scraped.add(articles.get(i));
+                }
+            }
+            return scraped;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return articles;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /** Scrapes a single article on the calling thread, within the same limits as scrapeAll. */
+    public RssFeedClient.RawArticle scrape(RssFeedClient.RawArticle article) {
+        try {
+            return scrapeOne(article);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return article;
+        }
+    }
+
+    private RssFeedClient.RawArticle scrapeOne(RssFeedClient.RawArticle article) throws InterruptedException {
+        String description = article.description();
+        if (description != null && description.length() >= minDescriptionChars) {
+            logger.debug("RSS description long enough ({} chars), not scraping: {}",
+                    description.length(), article.sourceUrl());
+            return article;
+        }
+        if (article.sourceUrl() == null) return article;
+
+        String hostName = hostOf(article.sourceUrl());
+        if (!domainStats.shouldAttempt(hostName)) {
+            logger.debug("Domain {} is cooling off, using RSS description: {}", hostName, article.sourceUrl());
+            return article;
+        }
+        HostState host = hosts.computeIfAbsent(hostName, h -> new HostState(maxPerHost));
+
+        boolean recorded = false;
+        try {
+            // Host first: a thread queued on a busy host must not sit on a global permit
+            // meanwhile, or one host's links starve every other host's
+            host.permits.acquire();
+            try {
+                waitForSlot(host);
+                globalPermits.acquire();
+                try {
+                    long started = System.currentTimeMillis();
+                    ScrapeResult result = scrapeFullContent(hostName, article.sourceUrl());
+                    domainStats.record(hostName, result.content() != null, result.extractedChars(),
+                            System.currentTimeMillis() - started, result.bytesRead());
+                    recorded = true;
+                    return article.withFullContent(result.content()).withResolvedUrl(result.finalUrl());
+                } finally {
+                    globalPermits.release();
+                }
+            } finally {
+                host.permits.release();
+            }
+        } finally {
+            // Interrupted before scraping — don't leave a re-probe hanging
+            if (!recorded) domainStats.abandon(hostName);
+        }
+    }
+
+    // Reserve the next free slot for this host and sleep until it arrives
+    private void waitForSlot(HostState host) throws InterruptedException {
+        if (hostDelayMs <= 0) return;
+        long now = System.currentTimeMillis();
+        long slot = host.nextSlot.getAndAccumulate(now,
+                (next, current) -> Math.max(next, current) + hostDelayMs);
+        long wait = Math.max(slot, now) - now;
+        if (wait > 0) Thread.sleep(wait);
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    // content is null when the page yielded nothing usable; finalUrl is where redirects ended, if known
+    private record ScrapeResult(String content, int extractedChars, long bytesRead, String finalUrl) {
+        private ScrapeResult(String content, int extractedChars, long bytesRead) {
+            this(content, extractedChars, bytesRead, null);
+        }
+
+        private ScrapeResult at(String finalUrl) {
+            return new ScrapeResult(content, extractedChars, bytesRead, finalUrl);
+        }
+    }
+
+    private ScrapeResult scrapeFullContent(String hostName, String url) {
+        if (replayStore.isReplaying()) {
+            return replayStore.replay(ReplayStore.Kind.HTML, url)
+                    .map(html -> extractRecorded(hostName, url, html)
+                            .at(replayStore.replayString(ReplayStore.Kind.REDIRECT, url).orElse(url)))
+                    .orElseGet(() -> new ScrapeResult(null, 0, 0));
+        }
+        if (replayStore.isRecording()) return scrapeAndRecord(hostName, url);
+        return streaming ? scrapeStreaming(hostName, url) : scrapeDom(hostName, url);
+    }
+
+    /* ============================================================
+       DOM MODE — download the page, build the full document
+       ============================================================ */
+
+    // Paywalled domains are no longer hard-coded; ScrapeDomainStats learns them
+    private ScrapeResult scrapeDom(String hostName, String url) {
+        try {
+            org.jsoup.Connection.Response response = org.jsoup.Jsoup.connect(url)
+                    .userAgent(USER_AGENT)
+                    .timeout(TIMEOUT_MS)
+                    .maxBodySize(maxBodyBytes)
+                    .execute();
+            long bytesRead = response.bodyAsBytes().length;
+            Document doc = response.parse();
+
+            doc.select(NOISE).remove();
+
+            String content = templates.extract(hostName, doc);
+            return toResult(url, content, bytesRead).at(response.url().toString());
+
+        } catch (Exception e) {
+            logger.warn("Could not scrape full content from {}: {}", url, e.getMessage());
+            return new ScrapeResult(null, 0, 0);
+        }
+    }
+
+    /* ============================================================
+       STREAMING MODE — parse paragraphs as they arrive, stop early
+       ============================================================ */
+
+    /**
+     * Reads at most maxBodyBytes of HTML and hands paragraphs to us as soon as
+     * they close, so we can stop once MAX_CONTENT_CHARS of article text is in
+     * hand. The rest of the page is never downloaded or parsed.
+     */
+    private ScrapeResult scrapeStreaming(String hostName, String url) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+        CountingInputStream body = null;
+        ScheduledFuture<?> watch = null;
+        AtomicBoolean expired = new AtomicBoolean();
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("User-Agent", USER_AGENT)
+                    .timeout(Duration.ofMillis(TIMEOUT_MS))
+                    .GET()
+                    .build();
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            body = new CountingInputStream(response.body(), maxBodyBytes);
+            if (response.statusCode() >= 400) {
+                logger.warn("Could not scrape full content from {}: HTTP {}", url, response.statusCode());
+                return new ScrapeResult(null, 0, 0);
+            }
+            watch = closeAtDeadline(body, deadline, expired);
+
+            String content = extractParagraphs(hostName, url, new InputStreamReader(body, charsetOf(response)));
+            if (expired.get()) {
+                logger.warn("Could not scrape full content from {}: body not read within {} ms", url, TIMEOUT_MS);
+                return new ScrapeResult(null, 0, body.count());
+            }
+            return toResult(url, content, body.count()).at(response.uri().toString());
+
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScrapeResult(null, 0, body != null ? body.count() : 0);
+        } catch (Exception e) {
+            logger.warn("Could not scrape full content from {}: {}", url,
+                    expired.get() ? "body not read within " + TIMEOUT_MS + " ms" : e.getMessage());
+            return new ScrapeResult(null, 0, body != null ? body.count() : 0);
+        } finally {
+            if (watch != null) watch.cancel(false);
+            // Closing early abandons the rest of the response
+            if (body != null) {
+                try {
+                    body.close();
+                } catch (IOException ignored) {
+                    // nothing left to release
+                }
+            }
+        }
+    }
+
+    /**
+     * Collects paragraph text under each selector the domain's template
+     * cache may pick, then lets it choose (and learn) exactly as it does for
+     * a DOM page. Stops once the selector it would pick so far is full.
+     */
+    String extractParagraphs(String hostName, String url, Reader html) throws IOException {
+        List<String> selectors = templates.selectors(hostName);
+        Map<String, StringBuilder> textBySelector = new LinkedHashMap<>();
+        selectors.forEach(selector -> textBySelector.put(selector, new StringBuilder()));
+
+        try (StreamParser parser = new StreamParser(Parser.htmlParser())) {
+            parser.parse(html, url);
+            for (Element p = parser.selectNext("p"); p != null; p = parser.selectNext("p")) {
+                if (p.closest(NOISE) == null) {
+                    String text = p.text();
+                    if (!text.isEmpty()) {
+                        for (String selector : selectors) {
+                            if (selector.equals("p") || p.closest(selector) != null) {
+                                append(textBySelector.get(selector), text);
+                            }
+                        }
+                    }
+                }
+                // Done with this paragraph; drop it so the tree stays small
+                p.remove();
+                if (leadingSelectorFull(textBySelector)) break;
+            }
+        }
+
+        return templates.extract(hostName, selector -> {
+            StringBuilder text = textBySelector.get(selector);
+            return text != null ? text.toString() : "";
+        });
+    }
+
+    // The first container with a usable amount of text is what extract() will pick
+    private boolean leadingSelectorFull(Map<String, StringBuilder> textBySelector) {
+        for (Map.Entry<String, StringBuilder> entry : textBySelector.entrySet()) {
+            if (entry.getKey().equals("p")) return false;
+            if (entry.getValue().length() > 200) return entry.getValue().length() >= MAX_CONTENT_CHARS;
+        }
+        return false;
+    }
+
+    /* ============================================================
+       RECORD / REPLAY — see ReplayStore
+       ============================================================ */
+
+    // Record: download the (capped) page once, save it, extract from the saved bytes
+    private ScrapeResult scrapeAndRecord(String hostName, String url) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("User-Agent", USER_AGENT)
+                    .timeout(Duration.ofMillis(TIMEOUT_MS))
+                    .GET()
+                    .build();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(TIMEOUT_MS);
+            HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            byte[] html;
+            AtomicBoolean expired = new AtomicBoolean();
+            try (InputStream body = response.body()) {
+                if (response.statusCode() >= 400) {
+                    logger.warn("Could not scrape full content from {}: HTTP {}", url, response.statusCode());
+                    return new ScrapeResult(null, 0, 0);
+                }
+                ScheduledFuture<?> watch = closeAtDeadline(body, deadline, expired);
+                try {
+                    html = body.readNBytes(maxBodyBytes);
+                } finally {
+                    watch.cancel(false);
+                }
+            }
+            if (expired.get()) {
+                logger.warn("Could not scrape full content from {}: body not read within {} ms", url, TIMEOUT_MS);
+                return new ScrapeResult(null, 0, 0);
+            }
+            replayStore.record(ReplayStore.Kind.HTML, url, html);
+            String finalUrl = response.uri().toString();
+            if (!finalUrl.equals(url)) replayStore.record(ReplayStore.Kind.REDIRECT, url, finalUrl);
+            return extractRecorded(hostName, url, html).at(finalUrl);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new ScrapeResult(null, 0, 0);
+        } catch (Exception e) {
+            logger.warn("Could not scrape full content from {}: {}", url, e.getMessage());
+            return new ScrapeResult(null, 0, 0);
+        }
+    }
+
+    // Same extraction as the live modes, over bytes we already have
+    private ScrapeResult extractRecorded(String hostName, String url, byte[] html) {
+        try {
+            String content;
+            if (streaming) {
+                content = extractParagraphs(hostName, url,
+                        new InputStreamReader(new ByteArrayInputStream(html), StandardCharsets.UTF_8));
+            } else {
+                Document doc = org.jsoup.Jsoup.parse(new ByteArrayInputStream(html), null, url);
+                doc.select(NOISE).remove();
+                content = templates.extract(hostName, doc);
+            }
+            return toResult(url, content, html.length);
+        } catch (Exception e) {
+            logger.warn("Could not extract recorded content for {}: {}", url, e.getMessage());
+            return new ScrapeResult(null, 0, html.length);
+        }
+    }
+
+    /**
+     * HttpRequest.timeout only covers the wait for response headers, so a
+     * host that drips its body could hold scrape permits indefinitely.
+     * Closing the stream at the deadline ends any read blocked on it.
+     */
+    private ScheduledFuture<?> closeAtDeadline(InputStream body, long deadlineNanos, AtomicBoolean expired) {
+        return watchdog.schedule(() -> {
+            expired.set(true);
+            try {
+                body.close();
+            } catch (IOException ignored) {
+                // the reader sees end-of-stream or an error either way
+            }
+        }, Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        watchdog.shutdownNow();
+    }
+
+    private ScrapeResult toResult(String url, String content, long bytesRead) {
+        logger.debug("Scraped {} ({} bytes read, {} chars)", url, bytesRead, content.length());
+
+        // If still too short — scraping failed silently (paywall/login page)
+        if (content.length() < 100) {
+            logger.warn("Scraped content too short ({}chars), likely paywalled: {}",
+                    content.length(), url);
+            return new ScrapeResult(null, content.length(), bytesRead);
+        }
+
+        return new ScrapeResult(
+                content.length() > MAX_CONTENT_CHARS ? content.substring(0, MAX_CONTENT_CHARS) : content,
+                content.length(), bytesRead);
+    }
+
+    private void append(StringBuilder text, String paragraph) {
+        if (text.length() >= MAX_CONTENT_CHARS) return;
+        if (!text.isEmpty()) text.append(' ');
+        text.append(paragraph);
+    }
+
+    private Charset charsetOf(HttpResponse<?> response) {
+        return response.headers().firstValue("Content-Type")
+                .map(type -> {
+                    int at = type.toLowerCase().indexOf("charset=");
+                    if (at < 0) return null;
+                    String name = type.substring(at + 8).split(";")[0].trim().replace("\"", "");
+                    try {
+                        return Charset.forName(name);
+                    } catch (Exception e) {
+                        return null;
+                    }
+                })
+                .orElse(StandardCharsets.UTF_8);
+    }
+
+    // Counts bytes handed to the parser and reports end-of-stream once the cap is hit
+    private static final class CountingInputStream extends FilterInputStream {
+        private final long limit;
+        private long count;
+
+        private CountingInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        long count() {
+            return count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            if (count >= limit) return -1;
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (count >= limit) return -1;
+            int n = super.read(buffer, offset, (int) Math.min(length, limit - count));
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
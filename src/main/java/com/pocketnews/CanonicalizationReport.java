@@ -0,0 +1,146 @@
+package com.pocketnews;
+
+import com.pocketnews.service.SourceUrlCanonicalizer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * How many AI calls URL canonicalization saves, active only with the
+ * "canonicalization-report" profile.
+ *
+ * Walks every item of the recorded RSS fixtures (see ReplayStore; record
+ * them first with the record profile) in feed order, the way one run
+ * claims links, and counts the items that dedupe on the raw link would
+ * have sent to Claude but SourceUrlCanonicalizer catches as a repeat:
+ *
+ *   - rules: the canonical form of the link itself (tracking parameters,
+ *     AMP variants, www/m. hosts, trailing slashes)
+ *   - redirects: a feedburner/feedproxy link whose recorded redirect
+ *     target is a story already seen; this one is only caught after the
+ *     scrape, so it saves the AI call but not the page fetch
+ *
+ * Only repeats within the recorded snapshot are counted; across runs the
+ * stored rows catch the same spellings.
+ */
+@Component
+@Profile("canonicalization-report")
+public class CanonicalizationReport implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CanonicalizationReport.class);
+
+    private final RssFeedClient rssFeedClient;
+    private final ReplayStore replayStore;
+    private final SourceUrlCanonicalizer sourceUrlCanonicalizer;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.exit:true}")
+    private boolean exitWhenDone;
+
+    public CanonicalizationReport(RssFeedClient rssFeedClient,
+                                  ReplayStore replayStore,
+                                  SourceUrlCanonicalizer sourceUrlCanonicalizer,
+                                  ConfigurableApplicationContext context) {
+        this.rssFeedClient = rssFeedClient;
+        this.replayStore = replayStore;
+        this.sourceUrlCanonicalizer = sourceUrlCanonicalizer;
+        this.context = context;
+    }
+
+    // Savings for one host: items seen, caught by the link rules, caught after a redirect
+    private static final class HostCount {
+        private int items;
+        private int byRules;
+        private int byRedirects;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Set<String> rawLinks = new HashSet<>();
+        Set<String> canonicalLinks = new HashSet<>();
+        Map<String, HostCount> byHost = new TreeMap<>();
+        int feeds = 0, items = 0, unresolvedRedirects = 0;
+
+        for (RssFeedSources.FeedGroup feed : RssFeedSources.FEED_GROUPS) {
+            Optional<byte[]> body = replayStore.replay(ReplayStore.Kind.RSS, feed.url());
+            if (body.isEmpty()) continue;
+            feeds++;
+            List<RssFeedClient.RawArticle> articles = new ArrayList<>();
+            rssFeedClient.parseDom(new ByteArrayInputStream(body.get()), "report", article -> false, articles);
+
+            for (RssFeedClient.RawArticle article : articles) {
+                String link = article.sourceUrl();
+                if (link == null) continue;
+                items++;
+                String resolved = replayStore.replayString(ReplayStore.Kind.REDIRECT, link).orElse(null);
+                String canonical = sourceUrlCanonicalizer.canonicalize(link);
+                String afterScrape = sourceUrlCanonicalizer.canonicalize(link, resolved);
+                if (resolved == null && sourceUrlCanonicalizer.isRedirect(link)) unresolvedRedirects++;
+
+                HostCount count = byHost.computeIfAbsent(hostOf(afterScrape), host -> new HostCount());
+                count.items++;
+                boolean newRaw = rawLinks.add(link);
+                boolean newCanonical = canonicalLinks.add(canonical);
+                boolean newAfterScrape = afterScrape.equals(canonical) ? newCanonical : canonicalLinks.add(afterScrape);
+                // Raw dedupe would have let it through, canonical dedupe didn't
+                if (newRaw && !newCanonical) {
+                    count.byRules++;
+                } else if (newRaw && !newAfterScrape) {
+                    count.byRedirects++;
+                }
+            }
+        }
+
+        int byRules = byHost.values().stream().mapToInt(c -> c.byRules).sum();
+        int byRedirects = byHost.values().stream().mapToInt(c -> c.byRedirects).sum();
+        logger.info("=== CANONICALIZATION REPORT: {} recorded feeds, {} items ===", feeds, items);
+        if (feeds == 0) {
+            logger.warn("No recorded RSS fixtures in replay mode; run the record profile first");
+        } else {
+            logger.info("AI calls with raw-link dedupe: {}, with canonical dedupe: {} ({} saved, {}%)",
+                    rawLinks.size(), rawLinks.size() - byRules - byRedirects, byRules + byRedirects,
+                    String.format("%.1f", 100.0 * (byRules + byRedirects) / Math.max(1, rawLinks.size())));
+            logger.info("  caught by the link rules: {} (scrape saved too)", byRules);
+            logger.info("  caught after following a redirect: {}", byRedirects);
+            if (unresolvedRedirects > 0) {
+                logger.info("  {} redirect links were never followed (not scraped, e.g. a long enough RSS description)",
+                        unresolvedRedirects);
+            }
+            byHost.forEach((host, count) -> {
+                if (count.byRules + count.byRedirects > 0) {
+                    logger.info("  {}: {} items, {} by rules, {} by redirects",
+                            host, count.items, count.byRules, count.byRedirects);
+                }
+            });
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.pocketnews;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Article text extraction benchmark, active only with the
+ * "extraction-benchmark" profile.
+ *
+ * Takes every article link in the recorded RSS fixtures that also has
+ * recorded HTML (see ReplayStore; record both first with the record
+ * profile) and extracts its text three ways, logging the mean time per
+ * page and the mean characters extracted:
+ *
+ *   - generic: full DOM, then the generic selector list and "p", the way
+ *     every page was handled before ExtractionTemplateCache
+ *   - templates, dom: full DOM, domain template first (app.scrape.mode=dom)
+ *   - templates, stream: ArticleScraper's streaming extraction, which also
+ *     stops once the template's container is full (app.scrape.mode=stream)
+ *
+ * Every mode parses the page, so the difference is selection work and,
+ * for streaming, the part of the page never parsed.
+ */
+@Component
+@Profile("extraction-benchmark")
+public class ExtractionBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionBenchmark.class);
+
+    // What scrapeFullContent tried on every page before per-domain templates
+    private static final List<String> GENERIC_SELECTORS = List.of(
+            "article", ".article-body", ".story-content",
+            ".article__content", ".content-body", ".entry-content");
+    private static final int MIN_CHARS = 200;
+
+    private final RssFeedClient rssFeedClient;
+    private final ArticleScraper articleScraper;
+    private final ReplayStore replayStore;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.extraction.iterations:20}")
+    private int iterations;
+
+    @Value("${app.benchmark.extraction.warmup:5}")
+    private int warmup;
+
+    @Value("${app.scrape.template-overrides:}")
+    private String templateOverrides;
+
+    @Value("${app.benchmark.exit:true}")
+    private boolean exitWhenDone;
+
+    public ExtractionBenchmark(RssFeedClient rssFeedClient,
+                               ArticleScraper articleScraper,
+                               ReplayStore replayStore,
+                               ConfigurableApplicationContext context) {
+        this.rssFeedClient = rssFeedClient;
+        this.articleScraper = articleScraper;
+        this.replayStore = replayStore;
+        this.context = context;
+    }
+
+    private record Page(String host, String url, byte[] html) {}
+
+    private interface Extract {
+        String run(Page page) throws Exception;
+    }
+
+    private record Mode(String name, Extract extract) {}
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<Page> pages = recordedPages();
+        long totalBytes = pages.stream().mapToLong(page -> page.html().length).sum();
+        logger.info("=== EXTRACTION BENCHMARK: {} recorded pages, {} KB ===", pages.size(), totalBytes / 1024);
+        if (pages.isEmpty()) {
+            logger.warn("No recorded article HTML in replay mode; run the record profile first");
+        } else {
+            ExtractionTemplateCache templates = new ExtractionTemplateCache(templateOverrides);
+            List<Mode> modes = List.of(
+                    new Mode("generic", page -> extractGeneric(parse(page))),
+                    new Mode("templates, dom", page -> templates.extract(page.host(), parse(page))),
+                    new Mode("templates, stream", page -> articleScraper.extractParagraphs(page.host(), page.url(),
+                            new InputStreamReader(new ByteArrayInputStream(page.html()), StandardCharsets.UTF_8))));
+            // Warm-up also lets both template modes learn each domain's selector
+            for (Mode mode : modes) {
+                measure(mode, pages, warmup);
+            }
+            logger.info("Per page: mean time, mean characters extracted");
+            for (Mode mode : modes) {
+                Result result = measure(mode, pages, iterations);
+                logger.info("  {}: {} ms, {} chars",
+                        mode.name(),
+                        String.format("%.3f", result.nanos() / 1e6 / result.pages()),
+                        result.chars() / result.pages());
+            }
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private List<Page> recordedPages() {
+        List<Page> pages = new ArrayList<>();
+        for (RssFeedSources.FeedGroup feed : RssFeedSources.FEED_GROUPS) {
+            byte[] rss = replayStore.replay(ReplayStore.Kind.RSS, feed.url()).orElse(null);
+            if (rss == null) continue;
+            List<RssFeedClient.RawArticle> articles = new ArrayList<>();
+            try {
+                rssFeedClient.parseStreaming(new ByteArrayInputStream(rss), "bench", article -> false, articles);
+            } catch (Exception e) {
+                logger.warn("Could not parse recorded feed {}: {}", feed.url(), e.getMessage());
+                continue;
+            }
+            for (RssFeedClient.RawArticle article : articles) {
+                replayStore.replay(ReplayStore.Kind.HTML, article.sourceUrl())
+                        .ifPresent(html -> pages.add(new Page(hostOf(article.sourceUrl()), article.sourceUrl(), html)));
+            }
+        }
+        return pages;
+    }
+
+    private record Result(long pages, long nanos, long chars) {}
+
+    private Result measure(Mode mode, List<Page> pages, int rounds) throws Exception {
+        long count = 0, nanos = 0, chars = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (Page page : pages) {
+                long started = System.nanoTime();
+                String content = mode.extract().run(page);
+                nanos += System.nanoTime() - started;
+                chars += content != null ? content.length() : 0;
+                count++;
+            }
+        }
+        return new Result(count, nanos, chars);
+    }
+
+    private Document parse(Page page) throws Exception {
+        Document doc = Jsoup.parse(new ByteArrayInputStream(page.html()), null, page.url());
+        doc.select(ArticleScraper.NOISE).remove();
+        return doc;
+    }
+
+    private String extractGeneric(Document doc) {
+        for (String selector : GENERIC_SELECTORS) {
+            String content = doc.select(selector).text();
+            if (content.length() > MIN_CHARS) return content;
+        }
+        return doc.select("p").text();
+    }
+
+    private String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+}
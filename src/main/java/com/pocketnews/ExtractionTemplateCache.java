@@ -0,0 +1,132 @@
+package com.pocketnews;
+
+import org.jsoup.nodes.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Remembers which CSS selector pulls the article body out of each domain.
+ *
+ * A page first tries its domain's template: a configured override for our
+ * main sources, otherwise the selector that last worked there. Only when
+ * that comes up short do we fall back to the generic selector list, and
+ * whichever generic selector succeeds becomes the domain's template.
+ */
+@Component
+public class ExtractionTemplateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionTemplateCache.class);
+
+    // Minimum text for a selector to count as having found the article
+    private static final int MIN_CHARS = 200;
+
+    private static final List<String> GENERIC_SELECTORS = List.of(
+            "article", ".article-body", ".story-content",
+            ".article__content", ".content-body", ".entry-content");
+
+    private static final String PARAGRAPH_FALLBACK = "p";
+
+    // Known article containers for our main sources
+    private static final Map<String, String> DEFAULT_OVERRIDES = Map.of(
+            "ndtv.com", "div[itemprop=articleBody], .sp-cn",
+            "thehindu.com", "div[itemprop=articleBody], .articlebodycontent",
+            "gadgets360.com", "div[itemprop=articleBody], .content_text",
+            "yourstory.com", "div[itemprop=articleBody], .article-body"
+    );
+
+    private final Map<String, String> overrides;
+    private final Map<String, String> learned = new ConcurrentHashMap<>();
+
+    public ExtractionTemplateCache(@Value("${app.scrape.template-overrides:}") String configuredOverrides) {
+        Map<String, String> merged = new HashMap<>(DEFAULT_OVERRIDES);
+        merged.putAll(parseOverrides(configuredOverrides));
+        this.overrides = Map.copyOf(merged);
+    }
+
+    /** Returns the article text of {@code doc}, learning the domain's template as it goes. */
+    public String extract(String domain, Document doc) {
+        return extract(domain, selector -> doc.select(selector).text());
+    }
+
+    /**
+     * Same as {@link #extract(String, Document)} for a page that was never
+     * built as a whole document: {@code textOf} returns the text collected
+     * under each of {@link #selectors(String)}, e.g. by the streaming scraper.
+     */
+    public String extract(String domain, Function<String, String> textOf) {
+        String template = templateFor(domain);
+        if (template != null) {
+            String content = textOf.apply(template);
+            if (content.length() > MIN_CHARS) return content;
+            logger.debug("Template '{}' came up short for {}, falling back", template, domain);
+        }
+
+        for (String selector : GENERIC_SELECTORS) {
+            if (selector.equals(template)) continue;
+            String content = textOf.apply(selector);
+            if (content.length() > MIN_CHARS) {
+                learn(domain, selector);
+                return content;
+            }
+        }
+
+        String content = textOf.apply(PARAGRAPH_FALLBACK);
+        if (content.length() > MIN_CHARS) learn(domain, PARAGRAPH_FALLBACK);
+        return content;
+    }
+
+    /** Every selector extract() may ask for on this domain, in the order it tries them. */
+    public List<String> selectors(String domain) {
+        Set<String> selectors = new LinkedHashSet<>();
+        String template = templateFor(domain);
+        if (template != null) selectors.add(template);
+        selectors.addAll(GENERIC_SELECTORS);
+        selectors.add(PARAGRAPH_FALLBACK);
+        return List.copyOf(selectors);
+    }
+
+    public Map<String, String> getTemplates() {
+        Map<String, String> all = new HashMap<>(learned);
+        all.putAll(overrides);
+        return all;
+    }
+
+    private String templateFor(String domain) {
+        for (Map.Entry<String, String> override : overrides.entrySet()) {
+            if (domain.equals(override.getKey()) || domain.endsWith("." + override.getKey())) {
+                return override.getValue();
+            }
+        }
+        return learned.get(domain);
+    }
+
+    private void learn(String domain, String selector) {
+        String previous = learned.put(domain, selector);
+        if (!selector.equals(previous)) {
+            logger.info("Learned extraction template for {}: '{}'", domain, selector);
+        }
+    }
+
+    // "ndtv.com=.sp-cn;example.com=div.body" — ';' separates domains since selectors may contain ','
+    private Map<String, String> parseOverrides(String configured) {
+        Map<String, String> parsed = new HashMap<>();
+        if (configured == null || configured.isBlank()) return parsed;
+        for (String entry : configured.split(";")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length == 2 && !parts[0].isBlank() && !parts[1].isBlank()) {
+                parsed.put(parts[0].trim().toLowerCase(), parts[1].trim());
+            }
+        }
+        return parsed;
+    }
+}
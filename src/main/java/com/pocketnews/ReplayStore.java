@@ -0,0 +1,142 @@
+package com.pocketnews;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Record/replay of everything ingestion fetches from outside: RSS bodies,
+ * article HTML (and where it redirected), images and Claude responses.
+ *
+ * off    — normal operation, nothing stored.
+ * record — live calls as usual; every response body is also saved under
+ *          app.replay.dir/{kind}/{sha256(key)}.bin.
+ * replay — no network at all; responses come from the saved fixtures after
+ *          a configurable per-kind delay that stands in for real latency.
+ *          A missing fixture behaves like a failed call.
+ */
+@Component
+public class ReplayStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplayStore.class);
+
+    // REDIRECT: the final URL of an HTML fetch that was redirected, keyed by the requested URL
+    public enum Kind { RSS, HTML, REDIRECT, IMAGE, CLAUDE }
+
+    private enum Mode { OFF, RECORD, REPLAY }
+
+    private final Mode mode;
+    private final Path root;
+    private final long rssLatencyMs;
+    private final long htmlLatencyMs;
+    private final long imageLatencyMs;
+    private final long claudeLatencyMs;
+
+    public ReplayStore(
+            @Value("${app.replay.mode:off}") String mode,
+            @Value("${app.replay.dir:./data/replay}") String dir,
+            @Value("${app.replay.latency.rss-ms:200}") long rssLatencyMs,
+            @Value("${app.replay.latency.html-ms:300}") long htmlLatencyMs,
+            @Value("${app.replay.latency.image-ms:150}") long imageLatencyMs,
+            @Value("${app.replay.latency.claude-ms:1200}") long claudeLatencyMs) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.root = Path.of(dir);
+        this.rssLatencyMs = rssLatencyMs;
+        this.htmlLatencyMs = htmlLatencyMs;
+        this.imageLatencyMs = imageLatencyMs;
+        this.claudeLatencyMs = claudeLatencyMs;
+        if (this.mode != Mode.OFF) {
+            logger.info("Replay store in {} mode at {}", this.mode, root.toAbsolutePath());
+        }
+    }
+
+    public boolean isRecording() {
+        return mode == Mode.RECORD;
+    }
+
+    public boolean isReplaying() {
+        return mode == Mode.REPLAY;
+    }
+
+    /** Saves a live response; no-op unless recording. */
+    public void record(Kind kind, String key, byte[] body) {
+        if (mode != Mode.RECORD || key == null || body == null) return;
+        Path file = pathOf(kind, key);
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), "fixture", ".tmp");
+            Files.write(tmp, body);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Could not record {} fixture for {}: {}", kind, key, e.getMessage());
+        }
+    }
+
+    public void record(Kind kind, String key, String body) {
+        if (body != null) record(kind, key, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The recorded body for {@code key}, after sleeping the kind's replay
+     * latency. Empty if there is no fixture or we're not replaying.
+     */
+    public Optional<byte[]> replay(Kind kind, String key) {
+        if (mode != Mode.REPLAY || key == null) return Optional.empty();
+        sleep(latencyOf(kind));
+        Path file = pathOf(kind, key);
+        try {
+            return Files.exists(file) ? Optional.of(Files.readAllBytes(file)) : Optional.empty();
+        } catch (IOException e) {
+            logger.warn("Could not read {} fixture for {}: {}", kind, key, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    public Optional<String> replayString(Kind kind, String key) {
+        return replay(kind, key).map(bytes -> new String(bytes, StandardCharsets.UTF_8));
+    }
+
+    private long latencyOf(Kind kind) {
+        return switch (kind) {
+            case RSS -> rssLatencyMs;
+            case HTML -> htmlLatencyMs;
+            case REDIRECT -> 0; // part of the HTML fetch
+            case IMAGE -> imageLatencyMs;
+            case CLAUDE -> claudeLatencyMs;
+        };
+    }
+
+    private void sleep(long ms) {
+        if (ms <= 0) return;
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Path pathOf(Kind kind, String key) {
+        return root.resolve(kind.name().toLowerCase(Locale.ROOT)).resolve(sha256(key) + ".bin");
+    }
+
+    private String sha256(String key) {
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.pocketnews;
 
+import com.pocketnews.service.FeedCheckpointService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -9,58 +11,362 @@ import org.w3c.dom.NodeList;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import java.net.URL;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.zip.GZIPInputStream;
 
     @Component
     public class RssFeedClient {
 
         private static final Logger logger = LoggerFactory.getLogger(RssFeedClient.class);
 
+        private final HttpClient httpClient = HttpClient.newBuilder()
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        // Per-feed cache validators from the last fetch whose items were all ingested.
+        // Also stored with the feed's checkpoint, so conditional GETs survive a restart.
+        private final Map<String, FeedValidators> validators = new ConcurrentHashMap<>();
+
+        private final RssStaxParser staxParser = new RssStaxParser();
+
+        private final ReplayStore replayStore;
+        private final FeedCheckpointService feedCheckpointService;
+
+        @Value("${app.rss.timeout-seconds:20}")
+        private long timeoutSeconds;
+
+        // "stax" streams items as they are read; "dom" is the original full-document parse
+        @Value("#{'${app.rss.parser:stax}' == 'stax'}")
+        private boolean useStax;
+
+        // Stop after this many items per feed (0 = no limit)
+        @Value("${app.rss.max-items:0}")
+        private int maxItems;
+
+        public RssFeedClient(ReplayStore replayStore, FeedCheckpointService feedCheckpointService) {
+            this.replayStore = replayStore;
+            this.feedCheckpointService = feedCheckpointService;
+        }
+
+        /**
+         * What we remember about a feed between runs: the server's ETag and
+         * Last-Modified for conditional GET, plus a hash of the body for
+         * servers that ignore them.
+         */
+        public record FeedValidators(String etag, String lastModified, String bodyHash) {}
+
         public record RawArticle(
                 String title,
                 String description,
-                String fullContent,  // ADD THIS
+                String fullContent,  // filled in later by ArticleScraper, only for new items
                 String sourceUrl,
                 String sourceName,
-                String imageUrl
-        ) {}
+                String imageUrl,
+                String guid,                 // <guid>, or the link when the feed has none
+                LocalDateTime publishedAt,   // <pubDate> in UTC, null if missing/unparseable
+                String resolvedUrl           // where sourceUrl redirected to, set by ArticleScraper; null if unknown
+        ) {
+            public RawArticle withFullContent(String fullContent) {
+                return new RawArticle(title, description, fullContent, sourceUrl, sourceName, imageUrl,
+                        guid, publishedAt, resolvedUrl);
+            }
 
-        public List<RawArticle> fetchFeed(String feedUrl, String sourceName) {
+            public RawArticle withResolvedUrl(String resolvedUrl) {
+                return new RawArticle(title, description, fullContent, sourceUrl, sourceName, imageUrl,
+                        guid, publishedAt, resolvedUrl);
+            }
+        }
+
+        /**
+         * One fetch of a feed: the items newer than the checkpoint, plus the
+         * validators to remember once they are all ingested (null when there
+         * is nothing new to remember, e.g. on a 304).
+         */
+        public record FeedFetch(List<RawArticle> articles, FeedValidators validators) {}
+
+        public FeedFetch fetchFeed(String feedUrl, String sourceName) {
+            return fetchFeed(feedUrl, sourceName, article -> false);
+        }
+
+        /**
+         * Fetches a feed and stops at the first item {@code alreadySeen} accepts.
+         * Feeds list newest first, so everything after it is old too.
+         * Items come back without fullContent; see {@link ArticleScraper}.
+         *
+         * The response's validators are not remembered here: call
+         * {@link #commit} once the items are safely ingested, or the next
+         * poll would get a 304 and never retry the ones that failed.
+         *
+         * @throws FeedFetchException on an error status, a network error or
+         *         an unparseable body, so the feed counts as failed (and is
+         *         backed off by FeedPollScheduler) rather than as empty
+         */
+        public FeedFetch fetchFeed(String feedUrl, String sourceName, Predicate<RawArticle> alreadySeen) {
             List<RawArticle> articles = new ArrayList<>();
+            if (replayStore.isReplaying()) {
+                return fetchReplayed(feedUrl, sourceName, alreadySeen, articles);
+            }
+            try {
+                FeedValidators previous = validators.get(feedUrl);
+                if (previous == null) previous = feedCheckpointService.validators(feedUrl);
+                HttpResponse<InputStream> response = httpClient.send(
+                        buildRequest(feedUrl, previous), HttpResponse.BodyHandlers.ofInputStream());
+
+                if (response.statusCode() == 304) {
+                    response.body().close();
+                    logger.info("Feed not modified (304), skipping: {}", feedUrl);
+                    return new FeedFetch(articles, null);
+                }
+                if (response.statusCode() != 200) {
+                    response.body().close();
+                    throw new FeedFetchException("HTTP " + response.statusCode(), null);
+                }
+
+                String etag = response.headers().firstValue("ETag").orElse(null);
+                String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+
+                // StAX reads straight off the socket: closing the stream at the checkpoint
+                // stops the download too
+                if (useStax && !replayStore.isRecording()) {
+                    return fetchStreaming(response, feedUrl, sourceName, alreadySeen, previous, etag, lastModified);
+                }
+
+                // DOM needs the whole document anyway (and recording needs the whole body)
+                byte[] body;
+                try (InputStream in = bodyStream(response)) {
+                    body = in.readAllBytes();
+                }
+                replayStore.record(ReplayStore.Kind.RSS, feedUrl, body);
+                String bodyHash = sha256(body);
+                if (previous != null && bodyHash.equals(previous.bodyHash())) {
+                    logger.info("Feed body unchanged, skipping parse: {}", feedUrl);
+                    return new FeedFetch(articles, null);
+                }
+
+                if (useStax) {
+                    parseStreaming(new ByteArrayInputStream(body), sourceName, alreadySeen, articles);
+                } else {
+                    parseDom(new ByteArrayInputStream(body), sourceName, alreadySeen, articles);
+                }
+                return new FeedFetch(articles, new FeedValidators(etag, lastModified, bodyHash));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new FeedFetchException("interrupted", e);
+            } catch (FeedFetchException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new FeedFetchException(e.getMessage(), e);
+            }
+        }
+
+        /**
+         * Parses the body as it streams in, hashing the bytes read. An unchanged
+         * feed usually stops at its checkpoint after the first item; one that
+         * runs to the end (no usable checkpoint, e.g. items without guid or
+         * pubDate) gets the same whole-body hash as the DOM path, and its items
+         * are dropped if that matches the last ingested body.
+         */
+        private FeedFetch fetchStreaming(HttpResponse<InputStream> response, String feedUrl, String sourceName,
+                                         Predicate<RawArticle> alreadySeen, FeedValidators previous,
+                                         String etag, String lastModified) throws Exception {
+            List<RawArticle> articles = new ArrayList<>();
+            AtomicBoolean stoppedEarly = new AtomicBoolean();
+            Predicate<RawArticle> stopAt = article -> {
+                boolean seen = alreadySeen.test(article);
+                if (seen) stoppedEarly.set(true);
+                return seen;
+            };
+
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String bodyHash = null;
+            try (InputStream in = new DigestInputStream(bodyStream(response), digest)) {
+                parseStreaming(in, sourceName, stopAt, articles);
+                if (!stoppedEarly.get() && (maxItems <= 0 || articles.size() < maxItems)) {
+                    // Only whitespace after </rss>, but the hash must cover what DOM would
+                    in.transferTo(OutputStream.nullOutputStream());
+                    bodyHash = HexFormat.of().formatHex(digest.digest());
+                }
+            }
+
+            if (bodyHash != null && previous != null && bodyHash.equals(previous.bodyHash())) {
+                logger.info("Feed body unchanged, skipping its items: {}", feedUrl);
+                return new FeedFetch(new ArrayList<>(), null);
+            }
+            return new FeedFetch(articles, new FeedValidators(etag, lastModified, bodyHash));
+        }
+
+        /** Remembers a fetch's validators so the next poll can skip the feed while it's unchanged. */
+        public void commit(String feedUrl, FeedFetch fetch) {
+            if (fetch.validators() == null) return;
+            validators.put(feedUrl, fetch.validators());
+            feedCheckpointService.saveValidators(feedUrl, fetch.validators());
+        }
+
+        // Replay: the recorded body, parsed every time (no validators or body-hash skip)
+        private FeedFetch fetchReplayed(String feedUrl, String sourceName,
+                                        Predicate<RawArticle> alreadySeen,
+                                        List<RawArticle> articles) {
+            byte[] body = replayStore.replay(ReplayStore.Kind.RSS, feedUrl).orElse(null);
+            if (body == null) {
+                throw new FeedFetchException("no recorded RSS body", null);
+            }
             try {
-                DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-                DocumentBuilder builder = factory.newDocumentBuilder();
-                Document doc = builder.parse(new URL(feedUrl).openStream());
-                doc.getDocumentElement().normalize();
-
-                NodeList items = doc.getElementsByTagName("item");
-
-                for (int i = 0; i < items.getLength(); i++) {
-                    Element item = (Element) items.item(i);
-
-                    String title = getTagValue("title", item);
-                    String description = getTagValue("description", item);
-                    String link = getTagValue("link", item);
-                    String imageUrl = extractImageUrl(item);
-
-                    if (title == null || title.isBlank()) continue;
-                    if (description == null && title == null) continue;
-
-                    articles.add(new RawArticle(
-                            cleanHtml(title),
-                            cleanHtml(description),
-                            scrapeFullContent(link),  // ADD THIS
-                            link,
-                            sourceName,
-                            imageUrl
-                    ));
+                if (useStax) {
+                    parseStreaming(new ByteArrayInputStream(body), sourceName, alreadySeen, articles);
+                } else {
+                    parseDom(new ByteArrayInputStream(body), sourceName, alreadySeen, articles);
                 }
             } catch (Exception e) {
-                logger.error("Failed to fetch RSS feed {}: {}", feedUrl, e.getMessage());
+                throw new FeedFetchException("unparseable recorded body: " + e.getMessage(), e);
+            }
+            return new FeedFetch(articles, null);
+        }
+
+        /** The feed couldn't be fetched or parsed; its message says why. */
+        public static class FeedFetchException extends RuntimeException {
+            public FeedFetchException(String message, Throwable cause) {
+                super(message, cause);
+            }
+        }
+
+        /* ============================================================
+           PARSERS — StAX streams item by item; DOM loads the whole feed.
+           Package-private for RssParserBenchmark.
+           ============================================================ */
+
+        void parseStreaming(InputStream body, String sourceName,
+                            Predicate<RawArticle> alreadySeen,
+                            List<RawArticle> articles) throws Exception {
+            staxParser.parse(body, maxItems, item -> {
+                RawArticle article = toRawArticle(item.title(), item.description(), item.link(),
+                        item.imageUrl(), item.guid(), item.pubDate(), sourceName);
+                if (article == null) return true;
+                if (alreadySeen.test(article)) {
+                    logger.debug("Reached already-seen item, stopping: {}", article.sourceUrl());
+                    return false;
+                }
+                articles.add(article);
+                return true;
+            });
+        }
+
+        void parseDom(InputStream body, String sourceName,
+                      Predicate<RawArticle> alreadySeen,
+                      List<RawArticle> articles) throws Exception {
+            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder builder = factory.newDocumentBuilder();
+            Document doc = builder.parse(body);
+            doc.getDocumentElement().normalize();
+
+            NodeList items = doc.getElementsByTagName("item");
+            int limit = maxItems > 0 ? Math.min(maxItems, items.getLength()) : items.getLength();
+
+            for (int i = 0; i < limit; i++) {
+                Element item = (Element) items.item(i);
+                RawArticle article = toRawArticle(
+                        getTagValue("title", item),
+                        getTagValue("description", item),
+                        getTagValue("link", item),
+                        extractImageUrl(item),
+                        getTagValue("guid", item),
+                        getTagValue("pubDate", item),
+                        sourceName);
+                if (article == null) continue;
+                if (alreadySeen.test(article)) break;
+                articles.add(article);
             }
-            return articles;
+        }
+
+        private RawArticle toRawArticle(String title, String description, String link,
+                                        String imageUrl, String guid, String pubDate,
+                                        String sourceName) {
+            if (title == null || title.isBlank()) return null;
+            if (link != null) link = link.trim();
+
+            return new RawArticle(
+                    cleanHtml(title),
+                    cleanHtml(description),
+                    null,
+                    link,
+                    sourceName,
+                    imageUrl,
+                    guid != null && !guid.isBlank() ? guid.trim() : link,
+                    parsePubDate(pubDate),
+                    null
+            );
+        }
+
+        // RSS 2.0 uses RFC 822 dates; a few feeds send ISO-8601 instead
+        private LocalDateTime parsePubDate(String pubDate) {
+            if (pubDate == null || pubDate.isBlank()) return null;
+            String value = pubDate.trim();
+            for (DateTimeFormatter format : List.of(
+                    DateTimeFormatter.RFC_1123_DATE_TIME, DateTimeFormatter.ISO_OFFSET_DATE_TIME)) {
+                try {
+                    return OffsetDateTime.parse(value, format)
+                            .withOffsetSameInstant(ZoneOffset.UTC)
+                            .toLocalDateTime();
+                } catch (DateTimeParseException ignored) {
+                    // try the next format
+                }
+            }
+            logger.debug("Unparseable pubDate: {}", value);
+            return null;
+        }
+
+        private HttpRequest buildRequest(String feedUrl, FeedValidators previous) {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(feedUrl))
+                    .timeout(Duration.ofSeconds(timeoutSeconds))
+                    .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                    .header("Accept-Encoding", "gzip")
+                    .GET();
+            if (previous != null) {
+                if (previous.etag() != null) request.header("If-None-Match", previous.etag());
+                if (previous.lastModified() != null) request.header("If-Modified-Since", previous.lastModified());
+            }
+            return request.build();
+        }
+
+        // The decoded body; closing it early abandons the rest of the response
+        private InputStream bodyStream(HttpResponse<InputStream> response) throws IOException {
+            boolean gzipped = response.headers().firstValue("Content-Encoding")
+                    .map(v -> v.equalsIgnoreCase("gzip"))
+                    .orElse(false);
+            if (!gzipped) return response.body();
+            try {
+                return new GZIPInputStream(response.body());
+            } catch (IOException e) {
+                response.body().close();
+                throw e;
+            }
+        }
+
+        private String sha256(byte[] body) throws NoSuchAlgorithmException {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
         }
 
         private String getTagValue(String tag, Element element) {
@@ -91,44 +397,4 @@ import java.util.List;
                     .replaceAll("\\s+", " ")    // ✅ normalize all whitespace including \t
                     .trim();
         }
-        private String scrapeFullContent(String url) {
-            // Skip known paywalled sites — Jsoup won't get past them
-            if (url.contains("timesofindia") || url.contains("economictimes")) {
-                logger.info("Skipping scrape for paywalled site: {}", url);
-                return null; // falls back to RSS description
-            }
-            try {
-                org.jsoup.nodes.Document doc = org.jsoup.Jsoup.connect(url)
-                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
-                        .timeout(5000)
-                        .get();
-
-                doc.select("script, style, nav, header, footer, aside, .ad, .advertisement").remove();
-
-                String content = "";
-                for (String selector : List.of(
-                        "article", ".article-body", ".story-content",
-                        ".article__content", ".content-body", ".entry-content")) {
-                    content = doc.select(selector).text();
-                    if (content.length() > 200) break;
-                }
-
-                if (content.length() < 200) {
-                    content = doc.select("p").text();
-                }
-
-                // If still too short — scraping failed silently (paywall/login page)
-                if (content.length() < 100) {
-                    logger.warn("Scraped content too short ({}chars), likely paywalled: {}",
-                            content.length(), url);
-                    return null;
-                }
-
-                return content.length() > 2500 ? content.substring(0, 2500) : content;
-
-            } catch (Exception e) {
-                logger.warn("Could not scrape full content from {}: {}", url, e.getMessage());
-                return null;
-            }
-        }
 }
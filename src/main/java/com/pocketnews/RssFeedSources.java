@@ -1,11 +1,17 @@
 package com.pocketnews;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public class RssFeedSources {
 
     public record RssFeed(String url, String defaultCategory) {}
 
+    // One entry per distinct URL, carrying every category it was listed under
+    public record FeedGroup(String url, List<String> categoryHints) {}
+
     public static final List<RssFeed> FEEDS = List.of(
             // General / Top Stories
             new RssFeed("https://feeds.feedburner.com/ndtvnews-top-stories", "top-stories"),
@@ -57,4 +63,22 @@ public class RssFeedSources {
             // Fashion
             new RssFeed("https://www.vogue.in/feed", "fashion")
     );
+
+    /**
+     * FEEDS grouped by URL, in first-seen order. Several categories share a
+     * feed (e.g. ndtvnews-india-news for india, politics and law-order), so
+     * ingestion fetches each URL once and carries all of its hints along.
+     */
+    public static final List<FeedGroup> FEED_GROUPS = groupByUrl(FEEDS);
+
+    private static List<FeedGroup> groupByUrl(List<RssFeed> feeds) {
+        Map<String, List<String>> hintsByUrl = new LinkedHashMap<>();
+        for (RssFeed feed : feeds) {
+            List<String> hints = hintsByUrl.computeIfAbsent(feed.url(), url -> new ArrayList<>());
+            if (!hints.contains(feed.defaultCategory())) hints.add(feed.defaultCategory());
+        }
+        return hintsByUrl.entrySet().stream()
+                .map(e -> new FeedGroup(e.getKey(), List.copyOf(e.getValue())))
+                .toList();
+    }
 }
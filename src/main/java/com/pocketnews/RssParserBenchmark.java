@@ -0,0 +1,155 @@
+package com.pocketnews;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * DOM vs StAX feed parsing benchmark, active only with the
+ * "parser-benchmark" profile.
+ *
+ * Parses every recorded RSS fixture (see ReplayStore; record them first
+ * with the record profile) three ways — DOM, StAX to the end, and StAX
+ * stopping after app.benchmark.parser.new-items items as it would at a
+ * checkpoint — and logs, per mode, the time per feed, bytes allocated per
+ * feed and bytes of the body actually read. Bytes read is what a live
+ * fetch downloads, since StAX parses straight off the socket.
+ */
+@Component
+@Profile("parser-benchmark")
+public class RssParserBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(RssParserBenchmark.class);
+
+    private final RssFeedClient rssFeedClient;
+    private final ReplayStore replayStore;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.parser.iterations:200}")
+    private int iterations;
+
+    @Value("${app.benchmark.parser.warmup:50}")
+    private int warmup;
+
+    // Items "newer than the checkpoint" in the early-stop run
+    @Value("${app.benchmark.parser.new-items:3}")
+    private int newItems;
+
+    @Value("${app.benchmark.exit:true}")
+    private boolean exitWhenDone;
+
+    public RssParserBenchmark(RssFeedClient rssFeedClient,
+                              ReplayStore replayStore,
+                              ConfigurableApplicationContext context) {
+        this.rssFeedClient = rssFeedClient;
+        this.replayStore = replayStore;
+        this.context = context;
+    }
+
+    private interface Parse {
+        void run(InputStream body, Predicate<RssFeedClient.RawArticle> alreadySeen,
+                 List<RssFeedClient.RawArticle> articles) throws Exception;
+    }
+
+    private record Mode(String name, Parse parse, boolean stopEarly) {}
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<byte[]> bodies = new ArrayList<>();
+        for (RssFeedSources.FeedGroup feed : RssFeedSources.FEED_GROUPS) {
+            replayStore.replay(ReplayStore.Kind.RSS, feed.url()).ifPresent(bodies::add);
+        }
+        long totalBytes = bodies.stream().mapToLong(body -> body.length).sum();
+        logger.info("=== RSS PARSER BENCHMARK: {} recorded feeds, {} KB ===", bodies.size(), totalBytes / 1024);
+        if (bodies.isEmpty()) {
+            logger.warn("No recorded RSS fixtures in replay mode; run the record profile first");
+        } else {
+            List<Mode> modes = List.of(
+                    new Mode("dom", (in, seen, out) -> rssFeedClient.parseDom(in, "bench", seen, out), false),
+                    new Mode("stax", (in, seen, out) -> rssFeedClient.parseStreaming(in, "bench", seen, out), false),
+                    new Mode("stax, stop at checkpoint",
+                            (in, seen, out) -> rssFeedClient.parseStreaming(in, "bench", seen, out), true));
+            for (Mode mode : modes) {
+                measure(mode, bodies, warmup);
+            }
+            logger.info("Per feed: mean time, bytes allocated, bytes of the body read");
+            for (Mode mode : modes) {
+                Result result = measure(mode, bodies, iterations);
+                logger.info("  {}: {} ms, {} KB allocated, {} KB read",
+                        mode.name(),
+                        String.format("%.3f", result.nanos() / 1e6 / result.parses()),
+                        result.allocated() / result.parses() / 1024,
+                        result.read() / result.parses() / 1024);
+            }
+        }
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    private record Result(long parses, long nanos, long allocated, long read) {}
+
+    private Result measure(Mode mode, List<byte[]> bodies, int rounds) throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long parses = 0, nanos = 0, allocated = 0, read = 0;
+        for (int round = 0; round < rounds; round++) {
+            for (byte[] body : bodies) {
+                CountingInputStream in = new CountingInputStream(new ByteArrayInputStream(body));
+                AtomicInteger seen = new AtomicInteger();
+                Predicate<RssFeedClient.RawArticle> alreadySeen = mode.stopEarly()
+                        ? article -> seen.incrementAndGet() > newItems
+                        : article -> false;
+                List<RssFeedClient.RawArticle> articles = new ArrayList<>();
+
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                long started = System.nanoTime();
+                mode.parse().run(in, alreadySeen, articles);
+                nanos += System.nanoTime() - started;
+                allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                read += in.count;
+                parses++;
+            }
+        }
+        return new Result(parses, nanos, allocated, read);
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) count++;
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) count += n;
+            return n;
+        }
+    }
+}
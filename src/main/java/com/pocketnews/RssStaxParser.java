@@ -0,0 +1,122 @@
+package com.pocketnews;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.util.function.Predicate;
+
+/**
+ * Streaming RSS parser built on StAX.
+ *
+ * Walks the feed once, hands each <item> to the caller as soon as its
+ * closing tag is read, and stops reading as soon as the caller says so.
+ * Unlike the DOM path, nothing is buffered beyond the current item.
+ */
+public class RssStaxParser {
+
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    public record RssItem(String title, String description, String link, String imageUrl,
+                          String guid, String pubDate) {}
+
+    /**
+     * Parses items from the stream and passes each one to {@code sink}.
+     * Parsing ends at the end of the feed, after {@code maxItems} items
+     * (0 = no limit), or as soon as {@code sink} returns false.
+     *
+     * @return number of items handed to the sink
+     */
+    public int parse(InputStream in, int maxItems, Predicate<RssItem> sink) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(in);
+        int emitted = 0;
+        try {
+            ItemBuilder current = null;
+
+            while (reader.hasNext()) {
+                int event = reader.next();
+
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    String prefix = reader.getPrefix();
+                    String name = reader.getLocalName();
+                    boolean plain = prefix == null || prefix.isEmpty();
+
+                    if (plain && name.equals("item")) {
+                        current = new ItemBuilder();
+                    } else if (current != null) {
+                        if (plain && name.equals("title") && current.title == null) {
+                            current.title = readText(reader);
+                        } else if (plain && name.equals("description") && current.description == null) {
+                            current.description = readText(reader);
+                        } else if (plain && name.equals("link") && current.link == null) {
+                            current.link = readText(reader).trim();
+                        } else if (plain && name.equals("guid") && current.guid == null) {
+                            current.guid = readText(reader).trim();
+                        } else if (plain && name.equals("pubDate") && current.pubDate == null) {
+                            current.pubDate = readText(reader).trim();
+                        } else if ("media".equals(prefix) && name.equals("content") && current.mediaUrl == null) {
+                            current.mediaUrl = reader.getAttributeValue(null, "url");
+                        } else if (plain && name.equals("enclosure") && current.enclosureUrl == null) {
+                            current.enclosureUrl = reader.getAttributeValue(null, "url");
+                        }
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT && current != null) {
+                    String prefix = reader.getPrefix();
+                    if ((prefix == null || prefix.isEmpty()) && reader.getLocalName().equals("item")) {
+                        emitted++;
+                        boolean keepGoing = sink.test(current.build());
+                        current = null;
+                        if (!keepGoing || (maxItems > 0 && emitted >= maxItems)) break;
+                    }
+                }
+            }
+        } finally {
+            reader.close();
+        }
+        return emitted;
+    }
+
+    /**
+     * Like getElementText(), but tolerates markup nested inside the element
+     * (some feeds put raw XHTML in <description>) by collecting all text below it.
+     */
+    private String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder text = new StringBuilder();
+        int depth = 1;
+        while (depth > 0 && reader.hasNext()) {
+            int event = reader.next();
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT -> depth++;
+                case XMLStreamConstants.END_ELEMENT -> depth--;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA,
+                     XMLStreamConstants.SPACE, XMLStreamConstants.ENTITY_REFERENCE -> text.append(reader.getText());
+                default -> { }
+            }
+        }
+        return text.toString();
+    }
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    private static final class ItemBuilder {
+        private String title;
+        private String description;
+        private String link;
+        private String mediaUrl;
+        private String enclosureUrl;
+        private String guid;
+        private String pubDate;
+
+        private RssItem build() {
+            // Same preference as the DOM path: <media:content> first, then <enclosure>
+            String imageUrl = mediaUrl != null ? mediaUrl : enclosureUrl;
+            return new RssItem(title, description, link, imageUrl, guid, pubDate);
+        }
+    }
+}
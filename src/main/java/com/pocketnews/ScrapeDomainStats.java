@@ -0,0 +1,176 @@
+package com.pocketnews;
+
+import com.pocketnews.dto.ScrapeDomainStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Learns which domains are worth scraping.
+ *
+ * Every scrape outcome is recorded per domain. After failureThreshold
+ * failures in a row (paywall, login wall, timeout, too little text) the
+ * domain cools off and is skipped; the RSS description is used instead.
+ * When the cooling-off period ends a single probe is let through: success
+ * clears the record, another failure doubles the cooling-off (up to a cap).
+ */
+@Component
+public class ScrapeDomainStats {
+
+    private static final Logger logger = LoggerFactory.getLogger(ScrapeDomainStats.class);
+
+    // Weight of the newest sample in the length/latency moving averages
+    private static final double SMOOTHING = 0.2;
+
+    private final int failureThreshold;
+    private final Duration cooldown;
+    private final Duration maxCooldown;
+
+    private final Map<String, DomainStats> domains = new ConcurrentHashMap<>();
+
+    public ScrapeDomainStats(
+            @Value("${app.scrape.failure-threshold:3}") int failureThreshold,
+            @Value("${app.scrape.cooldown-minutes:60}") long cooldownMinutes,
+            @Value("${app.scrape.max-cooldown-minutes:1440}") long maxCooldownMinutes) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.cooldown = Duration.ofMinutes(cooldownMinutes);
+        this.maxCooldown = Duration.ofMinutes(Math.max(cooldownMinutes, maxCooldownMinutes));
+    }
+
+    private static final class DomainStats {
+        // Not synchronized: a virtual thread blocked on a monitor pins its carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final String domain;
+        private long attempts;
+        private long successes;
+        private long skipped;
+        private int consecutiveFailures;
+        private double avgChars;
+        private double avgLatencyMs;
+        private double avgBytesRead;
+        private Duration currentCooldown;
+        private LocalDateTime coolingUntil;
+        private boolean probeInFlight;
+
+        private DomainStats(String domain) {
+            this.domain = domain;
+        }
+    }
+
+    /**
+     * Whether a scrape of this domain should go ahead now. A cooling domain
+     * returns false until its period ends, then true for exactly one probe.
+     */
+    public boolean shouldAttempt(String domain) {
+        DomainStats stats = domains.computeIfAbsent(domain, DomainStats::new);
+        stats.lock.lock();
+        try {
+            if (stats.coolingUntil == null) return true;
+
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            if (now.isBefore(stats.coolingUntil) || stats.probeInFlight) {
+                stats.skipped++;
+                return false;
+            }
+            stats.probeInFlight = true;
+            logger.info("Re-probing scrape domain {} after cooling off", domain);
+            return true;
+        } finally {
+            stats.lock.unlock();
+        }
+    }
+
+    public void record(String domain, boolean success, int extractedChars, long latencyMs, long bytesRead) {
+        DomainStats stats = domains.computeIfAbsent(domain, DomainStats::new);
+        stats.lock.lock();
+        try {
+            stats.attempts++;
+            stats.avgChars = stats.attempts == 1
+                    ? extractedChars
+                    : SMOOTHING * extractedChars + (1 - SMOOTHING) * stats.avgChars;
+            stats.avgLatencyMs = stats.attempts == 1
+                    ? latencyMs
+                    : SMOOTHING * latencyMs + (1 - SMOOTHING) * stats.avgLatencyMs;
+            stats.avgBytesRead = stats.attempts == 1
+                    ? bytesRead
+                    : SMOOTHING * bytesRead + (1 - SMOOTHING) * stats.avgBytesRead;
+
+            boolean wasProbe = stats.probeInFlight;
+            stats.probeInFlight = false;
+
+            if (success) {
+                stats.successes++;
+                stats.consecutiveFailures = 0;
+                stats.coolingUntil = null;
+                stats.currentCooldown = null;
+                return;
+            }
+
+            stats.consecutiveFailures++;
+            if (wasProbe || stats.consecutiveFailures >= failureThreshold) {
+                stats.currentCooldown = stats.currentCooldown == null
+                        ? cooldown
+                        : min(stats.currentCooldown.multipliedBy(2), maxCooldown);
+                stats.coolingUntil = LocalDateTime.now(ZoneOffset.UTC).plus(stats.currentCooldown);
+                logger.warn("Scrape domain {} failed {} times in a row, skipping for {} min",
+                        domain, stats.consecutiveFailures, stats.currentCooldown.toMinutes());
+            }
+        } finally {
+            stats.lock.unlock();
+        }
+    }
+
+    /** A permitted attempt that never ran (e.g. interrupted while waiting). */
+    public void abandon(String domain) {
+        DomainStats stats = domains.get(domain);
+        if (stats == null) return;
+        stats.lock.lock();
+        try {
+            stats.probeInFlight = false;
+        } finally {
+            stats.lock.unlock();
+        }
+    }
+
+    public List<ScrapeDomainStatsDTO> getStats() {
+        return domains.values().stream()
+                .map(this::toDTO)
+                .sorted(Comparator.comparing(ScrapeDomainStatsDTO::getDomain))
+                .toList();
+    }
+
+    private ScrapeDomainStatsDTO toDTO(DomainStats stats) {
+        stats.lock.lock();
+        try {
+            double successRate = stats.attempts == 0 ? 0 : (double) stats.successes / stats.attempts;
+            return new ScrapeDomainStatsDTO(
+                    stats.domain,
+                    stats.attempts,
+                    stats.successes,
+                    stats.skipped,
+                    Math.round(successRate * 1000) / 1000.0,
+                    Math.round(stats.avgChars),
+                    Math.round(stats.avgLatencyMs),
+                    Math.round(stats.avgBytesRead),
+                    stats.consecutiveFailures,
+                    stats.coolingUntil
+            );
+        } finally {
+            stats.lock.unlock();
+        }
+    }
+
+    private Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
@@ -0,0 +1,40 @@
+package com.pocketnews.controller;
+
+import com.pocketnews.service.ThumbnailService;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/images")
+public class ImageController {
+
+    private final ThumbnailService thumbnailService;
+
+    public ImageController(ThumbnailService thumbnailService) {
+        this.thumbnailService = thumbnailService;
+    }
+
+    /**
+     * GET /images/{hash}.jpg → article thumbnail. The name is the SHA-256 of
+     * the content, so the response never changes and can be cached forever.
+     */
+    @GetMapping("/{hash}.jpg")
+    public ResponseEntity<Resource> getThumbnail(@PathVariable String hash) {
+        return thumbnailService.find(hash)
+                .<ResponseEntity<Resource>>map(file -> ResponseEntity.ok()
+                        .contentType(MediaType.IMAGE_JPEG)
+                        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable())
+                        .eTag(hash)
+                        .body(new FileSystemResource(file)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,56 @@
+package com.pocketnews.controller;
+
+import com.pocketnews.ExtractionTemplateCache;
+import com.pocketnews.ScrapeDomainStats;
+import com.pocketnews.dto.FeedScheduleDTO;
+import com.pocketnews.dto.ScrapeDomainStatsDTO;
+import com.pocketnews.service.FeedPollScheduler;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/ingestion")
+public class IngestionController {
+
+    private final FeedPollScheduler feedPollScheduler;
+    private final ScrapeDomainStats scrapeDomainStats;
+    private final ExtractionTemplateCache extractionTemplates;
+
+    public IngestionController(FeedPollScheduler feedPollScheduler,
+                               ScrapeDomainStats scrapeDomainStats,
+                               ExtractionTemplateCache extractionTemplates) {
+        this.feedPollScheduler = feedPollScheduler;
+        this.scrapeDomainStats = scrapeDomainStats;
+        this.extractionTemplates = extractionTemplates;
+    }
+
+    /**
+     * GET /ingestion/feeds → each feed's next poll time, interval and observed publish rate
+     */
+    @GetMapping("/feeds")
+    public ResponseEntity<List<FeedScheduleDTO>> getFeedSchedule() {
+        return ResponseEntity.ok(feedPollScheduler.getSchedule());
+    }
+
+    /**
+     * GET /ingestion/scrape-domains → per-domain scrape success rate, text length,
+     * latency and cooling-off state
+     */
+    @GetMapping("/scrape-domains")
+    public ResponseEntity<List<ScrapeDomainStatsDTO>> getScrapeDomainStats() {
+        return ResponseEntity.ok(scrapeDomainStats.getStats());
+    }
+
+    /**
+     * GET /ingestion/extraction-templates → the content selector used first for each domain
+     */
+    @GetMapping("/extraction-templates")
+    public ResponseEntity<Map<String, String>> getExtractionTemplates() {
+        return ResponseEntity.ok(extractionTemplates.getTemplates());
+    }
+}
@@ -14,6 +14,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/news")
@@ -50,7 +51,8 @@ public class NewsController {
     }
 
     @PostMapping
-    public ResponseEntity<NewsDTO> createNews(@Valid @RequestBody NewsCreateRequest request) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(newsService.createNews(request));
+    public CompletableFuture<ResponseEntity<NewsDTO>> createNews(@Valid @RequestBody NewsCreateRequest request) {
+        return newsService.createNews(request)
+                .thenApply(news -> ResponseEntity.status(HttpStatus.CREATED).body(news));
     }
 }
\ No newline at end of file
@@ -0,0 +1,22 @@
+package com.pocketnews.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FeedScheduleDTO {
+    private String feedUrl;
+    private List<String> categoryHints;
+    private LocalDateTime nextPollAt;
+    private LocalDateTime lastPolledAt;
+    private Long intervalMinutes;
+    private Double itemsPerHour;        // moving average of new items
+    private Integer consecutiveFailures;
+    private String lastStatus;          // OK, FAILED, TIMED_OUT
+}
@@ -15,6 +15,8 @@ public class NewsDTO {
     private String shortHeadline;
     private String shortContent;
     private String imageUrl;
+    private String thumbnailUrl;   // small cached copy of imageUrl, null if none
+    private String blurHash;       // placeholder shown until the thumbnail loads
     private String source;
     private String sourceUrl;      // ✅ frontend shows this at bottom
     private Long viewCount;
@@ -0,0 +1,23 @@
+package com.pocketnews.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScrapeDomainStatsDTO {
+    private String domain;
+    private Long attempts;
+    private Long successes;
+    private Long skipped;               // scrapes avoided while cooling off
+    private Double successRate;
+    private Long avgExtractedChars;
+    private Long avgLatencyMs;
+    private Long avgBytesRead;          // HTML downloaded per page
+    private Integer consecutiveFailures;
+    private LocalDateTime coolingUntil; // null when the domain is being scraped normally
+}
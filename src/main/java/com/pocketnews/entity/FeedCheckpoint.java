@@ -0,0 +1,52 @@
+package com.pocketnews.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * High-water mark for one feed URL: the newest item ingestion has already
+ * processed. The parser stops when it reaches this item or anything older.
+ */
+@Entity
+@Table(name = "feed_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class FeedCheckpoint {
+
+    @Id
+    @Column(name = "feed_url", length = 500)
+    private String feedUrl;
+
+    // <guid> of the newest processed item, or its link when the feed has no guid
+    @Column(name = "last_item_key", length = 500)
+    private String lastItemKey;
+
+    // Newest <pubDate> seen, UTC
+    @Column(name = "last_published_at")
+    private LocalDateTime lastPublishedAt;
+
+    // Cache validators of the last fully ingested fetch (see RssFeedClient.FeedValidators)
+    @Column(name = "etag", length = 500)
+    private String etag;
+
+    @Column(name = "last_modified", length = 100)
+    private String lastModified;
+
+    @Column(name = "body_hash", length = 64)
+    private String bodyHash;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        this.updatedAt = LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
@@ -14,7 +14,8 @@ import java.time.ZoneOffset;
         indexes = {
                 @Index(name = "idx_news_category", columnList = "category_id"),
                 @Index(name = "idx_news_published", columnList = "published_at"),
-                @Index(name = "idx_news_source_url", columnList = "source_url")
+                @Index(name = "idx_news_source_url", columnList = "source_url"),
+                @Index(name = "idx_news_canonical_url", columnList = "canonical_url")
         }
 )
 @Getter
@@ -22,8 +23,11 @@ import java.time.ZoneOffset;
 @NoArgsConstructor
 public class News {
 
+    // Sequence (not IDENTITY) so Hibernate can batch inserts; pooled optimizer
+    // hands out 50 ids per round-trip. news_seq is seeded from max(id) in schema.sql.
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "news_seq")
+    @SequenceGenerator(name = "news_seq", sequenceName = "news_seq", allocationSize = 50)
     private Long id;
 
     // AI generated — shown as card title
@@ -38,6 +42,15 @@ public class News {
     @Column(name = "source_url", nullable = false, length = 500)
     private String sourceUrl;
 
+    // sourceUrl normalized by SourceUrlCanonicalizer — used only for dedupe
+    @Column(name = "canonical_url", length = 500)
+    private String canonicalUrl;
+
+    // NearDuplicateIndex fingerprint of the scraped title + text (not the AI summary),
+    // so the index can be rebuilt after a restart; null if the text was too short
+    @Column(name = "sim_hash")
+    private Long simHash;
+
     // Source name shown with URL e.g "Read more on NDTV"
     @Column(name = "source", length = 100)
     private String source;
@@ -45,6 +58,14 @@ public class News {
     @Column(name = "image_url", length = 500)
     private String imageUrl;
 
+    // SHA-256 of our stored thumbnail (see ThumbnailService); null when the image couldn't be processed
+    @Column(name = "thumbnail_hash", length = 64)
+    private String thumbnailHash;
+
+    // Placeholder clients render while the thumbnail loads
+    @Column(name = "blur_hash", length = 64)
+    private String blurHash;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
     private Category category;
@@ -0,0 +1,45 @@
+package com.pocketnews.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * A Claude summary remembered by the normalized hash of the text it was
+ * made from (see SummaryCache), so the same wire story arriving again under
+ * another URL is not summarized twice.
+ */
+@Entity
+@Table(name = "summary_cache")
+@Getter
+@Setter
+@NoArgsConstructor
+public class SummaryCacheEntry {
+
+    // SHA-256 hex of kind + normalized title + normalized content
+    @Id
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
+    @Column(name = "short_headline", nullable = false, length = 255)
+    private String shortHeadline;
+
+    @Column(name = "short_content", nullable = false, columnDefinition = "TEXT")
+    private String shortContent;
+
+    // Claude's category slug; null for plain summaries
+    @Column(name = "category", length = 100)
+    private String category;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (this.createdAt == null) this.createdAt = LocalDateTime.now(ZoneOffset.UTC);
+    }
+}
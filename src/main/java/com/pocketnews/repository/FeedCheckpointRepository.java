@@ -0,0 +1,9 @@
+package com.pocketnews.repository;
+
+import com.pocketnews.entity.FeedCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface FeedCheckpointRepository extends JpaRepository<FeedCheckpoint, String> {
+}
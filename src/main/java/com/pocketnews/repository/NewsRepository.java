@@ -10,12 +10,70 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NewsRepository extends JpaRepository<News, Long> {
 
     boolean existsBySourceUrl(String sourceUrl);
+
+    /* ============================================================
+       SOURCE URL DEDUPE — bulk lookups for SourceUrlDeduplicator.
+       A row answers to its canonical_url and to its raw source_url:
+       redirect links are kept as-is by SourceUrlCanonicalizer, while
+       the row's canonical_url is the page they led to. Rows saved
+       before canonical_url existed are backfilled at startup.
+       ============================================================ */
+    interface DedupeUrlView {
+        String getCanonicalUrl();
+        String getSourceUrl();
+    }
+
+    // Every row, active or not: a stored link is never ingested again, as with existsBySourceUrl
+    @Query("SELECT n.canonicalUrl AS canonicalUrl, n.sourceUrl AS sourceUrl FROM News n")
+    List<DedupeUrlView> findAllDedupeUrls();
+
+    @Query("""
+            SELECT n.canonicalUrl AS canonicalUrl, n.sourceUrl AS sourceUrl FROM News n
+            WHERE n.canonicalUrl IN :urls OR n.sourceUrl IN :urls
+            """)
+    List<DedupeUrlView> findExistingDedupeUrls(@Param("urls") Collection<String> urls);
+
+    // Raw links already stored, for reporting what canonicalization caught
+    @Query("SELECT n.sourceUrl FROM News n WHERE n.sourceUrl IN :urls")
+    List<String> findExistingSourceUrls(@Param("urls") Collection<String> urls);
+
+    // Rows saved before canonical_url existed, for the startup backfill
+    interface SourceUrlView {
+        Long getId();
+        String getSourceUrl();
+    }
+
+    @Query("SELECT n.id AS id, n.sourceUrl AS sourceUrl FROM News n WHERE n.canonicalUrl IS NULL")
+    List<SourceUrlView> findMissingCanonicalUrl();
+
+    /* ============================================================
+       SUMMARY CACHE — is a cached analysis already on a live story?
+       ============================================================ */
+    boolean existsByShortHeadlineAndShortContentAndActiveTrue(String shortHeadline, String shortContent);
+
+    /* ============================================================
+       NEAR-DUPLICATE INDEX — fingerprints of active stories only
+       ============================================================ */
+    interface NewsFingerprintView {
+        Long getSimHash();
+        LocalDateTime getPublishedAt();
+    }
+
+    @Query("""
+            SELECT n.simHash AS simHash,
+                   n.publishedAt AS publishedAt
+            FROM News n
+            WHERE n.active = true AND n.simHash IS NOT NULL
+            """)
+    List<NewsFingerprintView> findActiveFingerprints();
+
     /* ============================================================
        FEED BY PREFERRED CATEGORIES (initial load)
        ============================================================ */
@@ -0,0 +1,98 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Client-side token bucket that follows what the API tells us (AIMD).
+ * Starts at maxPerSecond with a burst of {@code burst} requests; every
+ * 429 halves the rate (down to minPerSecond) and, when the response says
+ * retry-after, holds every request until then; each success adds
+ * {@code increaseStep} back. Waiting is a Mono.delay, never a sleep.
+ *
+ * Exposes {name}.rate (current requests/s) and {name}.throttled.
+ */
+final class AdaptiveRateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveRateLimiter.class);
+
+    private final double maxPerSecond;
+    private final double minPerSecond;
+    private final double increaseStep;
+    private final int burst;
+    private final Counter throttled;
+
+    // Guarded by this
+    private double ratePerSecond;
+    // Both start in the past, so a fresh limiter has its whole burst available
+    private long nextFreeNanos = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+    private long pausedUntilNanos = nextFreeNanos;
+
+    AdaptiveRateLimiter(String name, double maxPerSecond, double minPerSecond, double increaseStep,
+                        int burst, MeterRegistry registry) {
+        this.maxPerSecond = Math.max(0.01, maxPerSecond);
+        this.minPerSecond = Math.min(this.maxPerSecond, Math.max(0.01, minPerSecond));
+        this.increaseStep = Math.max(0, increaseStep);
+        this.burst = Math.max(1, burst);
+        this.ratePerSecond = this.maxPerSecond;
+        Gauge.builder(name + ".rate", this, AdaptiveRateLimiter::currentRate)
+                .description("Requests per second the client currently allows itself")
+                .register(registry);
+        this.throttled = Counter.builder(name + ".throttled")
+                .description("429 responses that slowed the client down")
+                .register(registry);
+    }
+
+    /** Completes when the caller may send its request. */
+    Mono<Void> acquire() {
+        return Mono.defer(() -> {
+            long wait = reserve();
+            if (wait <= 0) return Mono.<Void>empty();
+            // A 429 may have paused everyone while we waited; queue up again if so
+            return Mono.delay(Duration.ofNanos(wait)).then(Mono.defer(() -> isPaused() ? acquire() : Mono.empty()));
+        });
+    }
+
+    synchronized void onSuccess() {
+        ratePerSecond = Math.min(maxPerSecond, ratePerSecond + increaseStep);
+    }
+
+    /** Called for a 429; {@code retryAfter} may be null when the response had none. */
+    synchronized void onThrottled(Duration retryAfter) {
+        throttled.increment();
+        double previous = ratePerSecond;
+        ratePerSecond = Math.max(minPerSecond, ratePerSecond / 2);
+        if (retryAfter != null && !retryAfter.isNegative()) {
+            pausedUntilNanos = Math.max(pausedUntilNanos, System.nanoTime() + retryAfter.toNanos());
+        }
+        logger.warn("Claude rate limited: {} → {} req/s{}", String.format("%.2f", previous),
+                String.format("%.2f", ratePerSecond),
+                retryAfter != null ? ", pausing " + retryAfter.toSeconds() + "s" : "");
+    }
+
+    // Reserves the next slot and returns how long to wait for it, in nanos
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long interval = (long) (1_000_000_000L / ratePerSecond);
+        // Idle time builds up credit for at most `burst` back-to-back requests
+        long slot = Math.max(nextFreeNanos, now - (burst - 1) * interval);
+        slot = Math.max(slot, pausedUntilNanos);
+        nextFreeNanos = slot + interval;
+        return slot - now;
+    }
+
+    private synchronized boolean isPaused() {
+        return System.nanoTime() < pausedUntilNanos;
+    }
+
+    private synchronized double currentRate() {
+        return ratePerSecond;
+    }
+}
@@ -1,27 +1,46 @@
 package com.pocketnews.service;
 
+import com.pocketnews.ReplayStore;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.IntStream;
 
 @Service
 public class AiSummarizationService {
 
     private static final Logger logger = LoggerFactory.getLogger(AiSummarizationService.class);
 
-    private static final String CLAUDE_API_URL = "https://api.anthropic.com/v1/messages";
+    private static final String MESSAGES_PATH = "/v1/messages";
+    private static final String BATCHES_PATH = "/v1/messages/batches";
+    // How long a cancelled batch may take to end before its results are given up on
+    private static final Duration BATCH_CANCEL_GRACE = Duration.ofMinutes(10);
     private static final String MODEL = "claude-haiku-4-5-20251001";
     private static final String ANTHROPIC_VERSION = "2023-06-01";
 
@@ -29,21 +48,149 @@ public class AiSummarizationService {
     private static final int TARGET_WORDS = 60;
     private static final int MAX_HEADLINE_WORDS = 10;
 
+    // Static half of the summarize() request, sent as the cached system prefix
+    private static final String SUMMARY_RULES = """
+            You are a news editor. Summarize the article in the user message.
+
+            RULES:
+            - SHORT_HEADLINE: Max 10 words. Write in your OWN words. Never copy the title.
+            - SHORT_CONTENT: Write 80-90 words in your OWN words. Single line only. No line breaks.
+              Cover who, what, when, where, why. Must end with a full stop.
+
+            RESPOND IN EXACTLY THIS FORMAT — no extra text:
+            SHORT_HEADLINE: [your headline]
+            SHORT_CONTENT: [your 80-90 word summary on a single line]
+            """;
+
     private final WebClient webClient;
     private final ObjectMapper objectMapper;
+    private final ReplayStore replayStore;
+    private final SummaryCache summaryCache;
+    private final InFlightLimiter inFlightLimiter;
+    private final AdaptiveRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Counter hedges;
+
+    // Running totals of the usage block of every Claude response
+    private final Counter cacheReadTokens;
+    private final Counter cacheWriteTokens;
+    private final Counter uncachedInputTokens;
+    private final Counter outputTokens;
 
     @Value("${anthropic.api.key}")
     private String apiKey;
 
-    public AiSummarizationService(WebClient.Builder webClientBuilder, ObjectMapper objectMapper) {
+    // Overridable so a local stand-in can play the API
+    @Value("${app.ai.base-url:https://api.anthropic.com}")
+    private String baseUrl;
+
+    @Value("${app.ai.max-retries:3}")
+    private int maxRetries;
+
+    // Hedging: a second identical request if the first hasn't answered after hedge.delay-ms
+    @Value("${app.ai.hedge.enabled:false}")
+    private boolean hedgeEnabled;
+
+    @Value("${app.ai.hedge.delay-ms:8000}")
+    private long hedgeDelayMs;
+
+    @Value("${app.ai.batch.min-items:5}")
+    private int batchMinItems;
+
+    @Value("${app.ai.batch.poll-seconds:30}")
+    private long batchPollSeconds;
+
+    @Value("${app.ai.batch.max-wait-minutes:60}")
+    private long batchMaxWaitMinutes;
+
+    public AiSummarizationService(WebClient.Builder webClientBuilder,
+                                  ObjectMapper objectMapper,
+                                  ReplayStore replayStore,
+                                  SummaryCache summaryCache,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.ai.max-in-flight:16}") int maxInFlight,
+                                  @Value("${app.ai.max-connections:16}") int maxConnections,
+                                  @Value("${app.ai.response-timeout-seconds:60}") long responseTimeoutSeconds,
+                                  @Value("${app.ai.max-idle-seconds:30}") long maxIdleSeconds,
+                                  @Value("${app.ai.rate.max-per-second:5}") double maxPerSecond,
+                                  @Value("${app.ai.rate.min-per-second:0.2}") double minPerSecond,
+                                  @Value("${app.ai.rate.increase-per-success:0.05}") double increasePerSuccess,
+                                  @Value("${app.ai.rate.burst:5}") int burst,
+                                  @Value("${app.ai.circuit.failure-threshold:5}") int failureThreshold,
+                                  @Value("${app.ai.circuit.open-seconds:60}") long openSeconds) {
+        // Dedicated pool sized to the in-flight limit; idle connections are evicted
+        // before Anthropic's side closes them, so we don't hit stale-connection resets
+        ConnectionProvider pool = ConnectionProvider.builder("claude")
+                .maxConnections(Math.max(1, maxConnections))
+                .pendingAcquireMaxCount(-1)
+                .maxIdleTime(Duration.ofSeconds(maxIdleSeconds))
+                .maxLifeTime(Duration.ofMinutes(5))
+                .evictInBackground(Duration.ofSeconds(maxIdleSeconds))
+                .metrics(true)
+                .build();
+        HttpClient httpClient = HttpClient.create(pool)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 10_000)
+                .responseTimeout(Duration.ofSeconds(responseTimeoutSeconds))
+                .compress(true);
+
         this.webClient = webClientBuilder
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Batch results arrive as one JSONL body, well past the 256 KB default
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(32 * 1024 * 1024))
                 .defaultHeader(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
                 .build();
         this.objectMapper = objectMapper;
+        this.replayStore = replayStore;
+        this.summaryCache = summaryCache;
+        this.inFlightLimiter = new InFlightLimiter("pocketnews.claude", maxInFlight, meterRegistry);
+        this.rateLimiter = new AdaptiveRateLimiter("pocketnews.claude.rate_limit",
+                maxPerSecond, minPerSecond, increasePerSuccess, burst, meterRegistry);
+        this.circuitBreaker = new CircuitBreaker("pocketnews.claude.circuit",
+                failureThreshold, Duration.ofSeconds(openSeconds), AiSummarizationService::isTransient, meterRegistry);
+        this.hedges = meterRegistry.counter("pocketnews.claude.hedges");
+        this.cacheReadTokens = meterRegistry.counter("pocketnews.claude.tokens", "type", "input_cache_read");
+        this.cacheWriteTokens = meterRegistry.counter("pocketnews.claude.tokens", "type", "input_cache_write");
+        this.uncachedInputTokens = meterRegistry.counter("pocketnews.claude.tokens", "type", "input_uncached");
+        this.outputTokens = meterRegistry.counter("pocketnews.claude.tokens", "type", "output");
     }
 
     public record SummaryResult(String shortHeadline, String shortContent) {}
 
+    /**
+     * Claude can't be reached right now — circuit open, or throttling and
+     * server errors outlasted the retries. Unlike a bad answer, this is
+     * worth trying again later rather than saving a truncated summary.
+     */
+    public static class ClaudeUnavailableException extends RuntimeException {
+        public ClaudeUnavailableException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+
+    // An error status from the API, with retry-after when it sent one
+    private static class ClaudeApiException extends RuntimeException {
+        private final int status;
+        private final Duration retryAfter;
+
+        private ClaudeApiException(int status, Duration retryAfter) {
+            super("Claude API error " + status);
+            this.status = status;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    /** Token totals; take a snapshot before and after a run and subtract. */
+    public record TokenUsage(long cacheRead, long cacheWrite, long uncachedInput, long output) {
+        public TokenUsage minus(TokenUsage earlier) {
+            return new TokenUsage(cacheRead - earlier.cacheRead, cacheWrite - earlier.cacheWrite,
+                    uncachedInput - earlier.uncachedInput, output - earlier.output);
+        }
+
+        public long totalInput() {
+            return cacheRead + cacheWrite + uncachedInput;
+        }
+    }
+
     public record AiResult(
             String shortHeadline,
             String shortContent,
@@ -56,79 +203,103 @@ public class AiSummarizationService {
        ============================================================ */
 
     public SummaryResult summarize(String title, String content) {
-        try {
-            return callClaudeApi(title, content);
-        } catch (Exception e) {
-            logger.error("Claude summarization failed, falling back to truncation: {}", e.getMessage());
-            return fallback(title, content);
-        }
+        return summarizeAsync(title, content).block();
+    }
+
+    /** Non-blocking summarize; never errors — falls back to truncation like summarize(). */
+    public Mono<SummaryResult> summarizeAsync(String title, String content) {
+        return summaryCache.lookup(SummaryCache.Kind.SUMMARY, title, content)
+                .map(hit -> new SummaryResult(hit.shortHeadline(), hit.shortContent()))
+                .switchIfEmpty(Mono.defer(() -> callClaudeApi(title, content))
+                        .doOnNext(result -> summaryCache.store(SummaryCache.Kind.SUMMARY, title, content,
+                                new SummaryCache.Entry(result.shortHeadline(), result.shortContent(), null))))
+                .onErrorResume(e -> {
+                    logger.error("Claude summarization failed, falling back to truncation: {}", e.getMessage());
+                    return Mono.just(fallback(title, content));
+                });
     }
 
     /* ============================================================
        PUBLIC — FULL ANALYSIS (category + duplicate + summary)
        ============================================================ */
 
+    // Throws ClaudeUnavailableException, see analyzeArticleAsync
     public AiResult analyzeArticle(String title, String content,
                                    List<String> categorySlugs,
                                    List<String> recentHeadlines) {
-        try {
-            return callClaudeForAnalysis(title, content, categorySlugs, recentHeadlines);
-        } catch (Exception e) {
-            logger.error("Claude analysis failed: {}", e.getMessage(), e);
-            return fallbackResult(title, content);
-        }
+        return analyzeArticleAsync(title, content, categorySlugs, recentHeadlines).block();
+    }
+
+    /**
+     * Non-blocking analyzeArticle. A bad or unusable answer falls back to
+     * truncation; an unreachable Claude errors with ClaudeUnavailableException
+     * so ingestion can leave the item for the next run.
+     */
+    public Mono<AiResult> analyzeArticleAsync(String title, String content,
+                                              List<String> categorySlugs,
+                                              List<String> recentHeadlines) {
+        return summaryCache.lookup(SummaryCache.Kind.ANALYSIS, title, content)
+                .flatMap(this::fromCache)
+                .switchIfEmpty(Mono.defer(() -> callClaudeForAnalysis(title, content, categorySlugs, recentHeadlines))
+                        .doOnNext(result -> cacheAnalysis(title, content, result)))
+                .onErrorMap(AiSummarizationService::isUnavailable,
+                        e -> new ClaudeUnavailableException("Claude unavailable: " + e.getMessage(), e))
+                .onErrorResume(e -> !(e instanceof ClaudeUnavailableException), e -> {
+                    logger.error("Claude analysis failed: {}", e.getMessage(), e);
+                    return Mono.just(fallbackResult(title, content));
+                });
+    }
+
+    // A hit is a duplicate while the story first made from it is still live
+    private Mono<AiResult> fromCache(SummaryCache.Entry hit) {
+        return summaryCache.isPublished(hit)
+                .map(published -> new AiResult(hit.shortHeadline(), hit.shortContent(), hit.category(), published));
+    }
+
+    // Duplicate verdicts depend on the headlines of the moment, so they're not remembered
+    private void cacheAnalysis(String title, String content, AiResult result) {
+        if (result.isDuplicate()) return;
+        summaryCache.store(SummaryCache.Kind.ANALYSIS, title, content,
+                new SummaryCache.Entry(result.shortHeadline(), result.shortContent(), result.assignedCategory()));
+    }
+
+    /** Tokens billed so far, split by how the input was processed. */
+    public TokenUsage tokenUsage() {
+        return new TokenUsage((long) cacheReadTokens.count(), (long) cacheWriteTokens.count(),
+                (long) uncachedInputTokens.count(), (long) outputTokens.count());
     }
 
     /* ============================================================
        PRIVATE — SIMPLE API CALL
        ============================================================ */
 
-    private SummaryResult callClaudeApi(String title, String content) {
-        try {
-            String safeTitle = title != null ? title : "";
-            String safeContent = content != null ? content : "";
-            String truncated = safeContent.length() > 2500 ? safeContent.substring(0, 2500) : safeContent;
-
-            String prompt = """
-                    You are a news editor. Summarize the article below.
-
-                    RULES:
-                    - SHORT_HEADLINE: Max 10 words. Write in your OWN words. Never copy the title.
-                    - SHORT_CONTENT: Write 80-90 words in your OWN words. Single line only. No line breaks.
-                      Cover who, what, when, where, why. Must end with a full stop.
-
-                    RESPOND IN EXACTLY THIS FORMAT — no extra text:
-                    SHORT_HEADLINE: [your headline]
-                    SHORT_CONTENT: [your 80-90 word summary on a single line]
-
-                    TITLE: %s
-                    CONTENT: %s
-                    """.formatted(safeTitle, truncated);
-
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", MODEL);
-            requestBody.put("max_tokens", 600);
-            requestBody.put("temperature", 0.2);
-
-            ArrayNode messages = requestBody.putArray("messages");
-            ObjectNode message = messages.addObject();
-            message.put("role", "user");
-            message.put("content", prompt);
-
-            String responseBody = webClient.post()
-                    .uri(CLAUDE_API_URL)
-                    .header("x-api-key", apiKey)
-                    .header("anthropic-version", ANTHROPIC_VERSION)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            response -> response.bodyToMono(String.class)
-                                    .doOnNext(body -> logger.error("Claude API error body: {}", body))
-                                    .then(Mono.error(new RuntimeException("Claude API error"))))
-                    .bodyToMono(String.class)
-                    .block();
+    private Mono<SummaryResult> callClaudeApi(String title, String content) {
+        String safeTitle = title != null ? title : "";
+        String safeContent = content != null ? content : "";
+        String truncated = safeContent.length() > 2500 ? safeContent.substring(0, 2500) : safeContent;
+
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", MODEL);
+        requestBody.put("max_tokens", 600);
+        requestBody.put("temperature", 0.2);
+        putCachedSystem(requestBody, SUMMARY_RULES);
+
+        ArrayNode messages = requestBody.putArray("messages");
+        ObjectNode message = messages.addObject();
+        message.put("role", "user");
+        message.put("content", """
+                TITLE: %s
+                CONTENT: %s
+                """.formatted(safeTitle, truncated));
+
+        return postToClaude("summary:" + safeTitle, requestBody)
+                .map(responseBody -> parseSummaryResponse(responseBody, safeTitle));
+    }
 
+    private SummaryResult parseSummaryResponse(String responseBody, String safeTitle) {
+        try {
             JsonNode root = objectMapper.readTree(responseBody);
+            recordUsage(root.path("usage"));
             String text = root.path("content").get(0).path("text").asText();
             logger.info("RAW CLAUDE RESPONSE (simple): {}", text);
 
@@ -168,79 +339,61 @@ public class AiSummarizationService {
        PRIVATE — ANALYSIS API CALL
        ============================================================ */
 
-    private AiResult callClaudeForAnalysis(String title, String content,
-                                           List<String> categorySlugs,
-                                           List<String> recentHeadlines) {
-        try {
-            // Null guards — prevent bad prompts
-            String safeTitle = title != null ? title : "";
-            String safeContent = content != null ? content : "";
-            List<String> safeSlugs = categorySlugs != null ? categorySlugs : List.of("top-stories");
-            List<String> safeHeadlines = recentHeadlines != null ? recentHeadlines : List.of();
-
-            String prompt = buildAnalysisPrompt(safeTitle, safeContent, safeSlugs, safeHeadlines);
-
-            logger.info("=== CALLING CLAUDE API ===");
-            logger.info("Title: {}", safeTitle);
-            logger.info("Prompt length: {} chars", prompt.length());
-
-            ObjectNode requestBody = objectMapper.createObjectNode();
-            requestBody.put("model", MODEL);
-            requestBody.put("max_tokens", 600); // Claude writes 80-90 words, needs enough room
-            requestBody.put("temperature", 0.2);
-
-            ArrayNode messages = requestBody.putArray("messages");
-            ObjectNode message = messages.addObject();
-            message.put("role", "user");
-            message.put("content", prompt);
-
-            String responseBody = webClient.post()
-                    .uri(CLAUDE_API_URL)
-                    .header("x-api-key", apiKey)
-                    .header("anthropic-version", ANTHROPIC_VERSION)
-                    .bodyValue(requestBody)
-                    .retrieve()
-                    .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
-                            response -> response.bodyToMono(String.class)
-                                    .doOnNext(body -> logger.error("Claude 400/500 error body: {}", body))
-                                    .then(Mono.error(new RuntimeException("Claude API error"))))
-                    .bodyToMono(String.class)
-                    .block();
-
-            logger.info("RAW CLAUDE RESPONSE: {}", responseBody);
-
-            return parseAnalysisResponse(responseBody, safeTitle);
-
-        } catch (Exception e) {
-            logger.error("Claude analysis API call failed: {}", e.getMessage(), e);
-            throw new RuntimeException("Claude analysis API call failed", e);
-        }
+    private Mono<AiResult> callClaudeForAnalysis(String title, String content,
+                                                 List<String> categorySlugs,
+                                                 List<String> recentHeadlines) {
+        String safeTitle = title != null ? title : "";
+
+        logger.info("=== CALLING CLAUDE API ===");
+        logger.info("Title: {}", safeTitle);
+
+        return postToClaude("analysis:" + safeTitle, analysisRequest(title, content, categorySlugs, recentHeadlines))
+                .map(responseBody -> {
+                    logger.info("RAW CLAUDE RESPONSE: {}", responseBody);
+                    try {
+                        return parseAnalysisResponse(responseBody, safeTitle);
+                    } catch (Exception e) {
+                        throw new RuntimeException("Claude analysis API call failed", e);
+                    }
+                });
     }
 
-    private String buildAnalysisPrompt(String title, String content,
+    // Messages API body for one analysis; also the params of a batch entry
+    private ObjectNode analysisRequest(String title, String content,
                                        List<String> categorySlugs,
                                        List<String> recentHeadlines) {
+        // Null guards — prevent bad prompts
+        String safeTitle = title != null ? title : "";
+        String safeContent = content != null ? content : "";
+        List<String> safeSlugs = categorySlugs != null ? categorySlugs : List.of("top-stories");
+        List<String> safeHeadlines = recentHeadlines != null ? recentHeadlines : List.of();
+
+        ObjectNode requestBody = objectMapper.createObjectNode();
+        requestBody.put("model", MODEL);
+        requestBody.put("max_tokens", 600); // Claude writes 80-90 words, needs enough room
+        requestBody.put("temperature", 0.2);
+        putCachedSystem(requestBody, buildAnalysisRules(safeSlugs));
+
+        ArrayNode messages = requestBody.putArray("messages");
+        ObjectNode message = messages.addObject();
+        message.put("role", "user");
+        message.put("content", buildAnalysisPrompt(safeTitle, safeContent, safeHeadlines));
+        return requestBody;
+    }
 
-        String truncatedContent = content.length() > 2500
-                ? content.substring(0, 2500)
-                : content;
-
-        List<String> limitedHeadlines = recentHeadlines.stream()
-                .limit(10)
-                .map(h -> h.length() > 50 ? h.substring(0, 50) : h)
-                .toList();
-
+    /**
+     * The part of every analysis request that only changes when categories
+     * do: role, category list, rules and output format. Sent as the cached
+     * system prefix; slugs are sorted so the prefix is byte-for-byte stable.
+     */
+    private String buildAnalysisRules(List<String> categorySlugs) {
         return """
                 You are a news editor for a mobile app like Inshorts.
 
                 AVAILABLE CATEGORIES: %s
 
-                RECENT HEADLINES (for duplicate check ONLY — do NOT use these in your summary):
-                %s
-
-                === ARTICLE TO SUMMARIZE — IGNORE EVERYTHING ABOVE THIS LINE ===
-                ARTICLE TITLE: %s
-                ARTICLE CONTENT: %s
+                The user message lists RECENT HEADLINES, then the ARTICLE TO SUMMARIZE.
+                Recent headlines are for the duplicate check ONLY — never use them in your summary.
 
                 STRICT RULES:
                 - CATEGORY: Pick exactly one slug from AVAILABLE CATEGORIES.
@@ -254,16 +407,50 @@ public class AiSummarizationService {
                 DUPLICATE: [YES or NO]
                 SHORT_HEADLINE: [your headline]
                 SHORT_CONTENT: [your 80-90 word summary on a single line]
+                """.formatted(String.join(", ", categorySlugs.stream().sorted().toList()));
+    }
+
+    // The per-article part: recent headlines and the article itself
+    private String buildAnalysisPrompt(String title, String content, List<String> recentHeadlines) {
+
+        String truncatedContent = content.length() > 2500
+                ? content.substring(0, 2500)
+                : content;
+
+        List<String> limitedHeadlines = recentHeadlines.stream()
+                .limit(10)
+                .map(h -> h.length() > 50 ? h.substring(0, 50) : h)
+                .toList();
+
+        return """
+                RECENT HEADLINES (for duplicate check ONLY — do NOT use these in your summary):
+                %s
+
+                === ARTICLE TO SUMMARIZE — IGNORE EVERYTHING ABOVE THIS LINE ===
+                ARTICLE TITLE: %s
+                ARTICLE CONTENT: %s
                 """.formatted(
-                String.join(", ", categorySlugs),
                 limitedHeadlines.isEmpty() ? "none" : String.join("\n", limitedHeadlines),
                 title,
                 truncatedContent
         );
     }
 
+    // Marks the static instructions as a prompt-cache breakpoint: later requests with
+    // the same prefix read it from cache instead of paying full input processing.
+    // Haiku 4.5 only caches prefixes of 4096+ tokens and both rule sets are a few
+    // hundred, so on that model the marker is a no-op (nothing is written or charged);
+    // it takes effect on models with a lower minimum or if the rules grow
+    private void putCachedSystem(ObjectNode requestBody, String instructions) {
+        ObjectNode block = requestBody.putArray("system").addObject();
+        block.put("type", "text");
+        block.put("text", instructions);
+        block.putObject("cache_control").put("type", "ephemeral");
+    }
+
     private AiResult parseAnalysisResponse(String responseBody, String title) throws Exception {
         JsonNode root = objectMapper.readTree(responseBody);
+        recordUsage(root.path("usage"));
         String text = root.path("content").get(0).path("text").asText();
         logger.info("RAW CLAUDE TEXT: {}", text);
 
@@ -309,6 +496,151 @@ public class AiSummarizationService {
         return new AiResult(shortHeadline, shortContent, category, isDuplicate);
     }
 
+    /* ============================================================
+       PUBLIC — MESSAGE BATCHES (bulk ingestion)
+       ============================================================ */
+
+    public record ArticleInput(String title, String content) {}
+
+    /**
+     * Analyzes a whole run's articles through one Message Batch instead of
+     * one Messages call each: a single submit, then a status poll every
+     * app.ai.batch.poll-seconds. Batched requests cost half as much.
+     *
+     * Returns one result per input, in input order; an entry is null only
+     * when Claude was unavailable for it (see ClaudeUnavailableException). Anything the
+     * batch doesn't deliver is retried with per-item calls. That covers the
+     * unfinished part of a batch still running after
+     * app.ai.batch.max-wait-minutes (it is cancelled, and what it had
+     * already finished is still collected), an errored or expired entry,
+     * and a submit that fails.
+     * Articles already in SummaryCache never reach the batch. Runs with
+     * fewer than app.ai.batch.min-items uncached articles skip the batch,
+     * and so does replay mode.
+     */
+    public List<AiResult> analyzeBatch(List<ArticleInput> articles,
+                                       List<String> categorySlugs,
+                                       List<String> recentHeadlines) {
+        if (articles.isEmpty()) return List.of();
+
+        AiResult[] results = new AiResult[articles.size()];
+        for (int i = 0; i < articles.size(); i++) {
+            ArticleInput article = articles.get(i);
+            results[i] = summaryCache.lookup(SummaryCache.Kind.ANALYSIS, article.title(), article.content())
+                    .flatMap(this::fromCache)
+                    .block();
+        }
+
+        long uncached = Arrays.stream(results).filter(Objects::isNull).count();
+        if (uncached < articles.size()) {
+            logger.info("Summary cache answered {} of {} articles", articles.size() - uncached, articles.size());
+        }
+        if (uncached >= Math.max(1, batchMinItems) && !replayStore.isReplaying()) {
+            try {
+                runBatch(articles, categorySlugs, recentHeadlines, results);
+            } catch (Exception e) {
+                logger.error("Message batch failed, falling back to per-item calls: {}", e.getMessage());
+            }
+        }
+
+        List<Integer> missing = IntStream.range(0, results.length)
+                .filter(i -> results[i] == null)
+                .boxed()
+                .toList();
+        if (!missing.isEmpty()) {
+            logger.info("Analyzing {} of {} articles with per-item calls", missing.size(), articles.size());
+            List<Map.Entry<Integer, AiResult>> retried = Flux.fromIterable(missing)
+                    .flatMap(i -> analyzeArticleAsync(articles.get(i).title(), articles.get(i).content(),
+                                    categorySlugs, recentHeadlines)
+                            .map(result -> Map.entry(i, result))
+                            // Left null for the caller to retry next run
+                            .onErrorResume(ClaudeUnavailableException.class, e -> Mono.empty()))
+                    .collectList()
+                    .block();
+            retried.forEach(entry -> results[entry.getKey()] = entry.getValue());
+        }
+        return Arrays.asList(results);
+    }
+
+    // Sends the entries still null in results; fills in those the batch completed
+    private void runBatch(List<ArticleInput> articles,
+                          List<String> categorySlugs,
+                          List<String> recentHeadlines,
+                          AiResult[] results) throws Exception {
+        ObjectNode body = objectMapper.createObjectNode();
+        ArrayNode requests = body.putArray("requests");
+        for (int i = 0; i < articles.size(); i++) {
+            if (results[i] != null) continue;
+            ArticleInput article = articles.get(i);
+            ObjectNode request = requests.addObject();
+            request.put("custom_id", "article-" + i);
+            request.set("params", analysisRequest(article.title(), article.content(), categorySlugs, recentHeadlines));
+        }
+
+        JsonNode batch = objectMapper.readTree(
+                exchange(webClient.post().uri(baseUrl + BATCHES_PATH).bodyValue(body)).block());
+        String batchId = batch.path("id").asText();
+        logger.info("Submitted message batch {} with {} articles", batchId, requests.size());
+
+        long deadline = System.nanoTime() + Duration.ofMinutes(batchMaxWaitMinutes).toNanos();
+        boolean cancelled = false;
+        while (!"ended".equals(batch.path("processing_status").asText())) {
+            if (System.nanoTime() >= deadline) {
+                if (cancelled) {
+                    logger.warn("Message batch {} still {} {} min after cancelling, giving up on its results",
+                            batchId, batch.path("processing_status").asText(), BATCH_CANCEL_GRACE.toMinutes());
+                    return;
+                }
+                // Entries that already succeeded are billed: keep polling until it ends and collect them
+                logger.warn("Message batch {} still {} after {} min, cancelling",
+                        batchId, batch.path("processing_status").asText(), batchMaxWaitMinutes);
+                exchange(webClient.post().uri(baseUrl + BATCHES_PATH + "/" + batchId + "/cancel"))
+                        .onErrorResume(e -> Mono.empty())
+                        .block();
+                cancelled = true;
+                deadline = System.nanoTime() + BATCH_CANCEL_GRACE.toNanos();
+            }
+            Thread.sleep(Duration.ofSeconds(Math.max(1, batchPollSeconds)).toMillis());
+            batch = objectMapper.readTree(
+                    exchange(webClient.get().uri(baseUrl + BATCHES_PATH + "/" + batchId)).block());
+        }
+
+        String resultsUrl = batch.path("results_url").asText(baseUrl + BATCHES_PATH + "/" + batchId + "/results");
+        String lines = exchange(webClient.get().uri(resultsUrl)).block();
+        int succeeded = 0;
+        for (String line : lines != null ? lines.split("\n") : new String[0]) {
+            if (line.isBlank()) continue;
+            JsonNode entry = objectMapper.readTree(line);
+            int index = Integer.parseInt(entry.path("custom_id").asText().substring("article-".length()));
+            JsonNode result = entry.path("result");
+            if (!"succeeded".equals(result.path("type").asText())) {
+                logger.warn("Batch entry for '{}' {}", articles.get(index).title(), result.path("type").asText());
+                continue;
+            }
+
+            String title = articles.get(index).title() != null ? articles.get(index).title() : "";
+            String message = result.path("message").toString();
+            try {
+                results[index] = parseAnalysisResponse(message, title);
+                cacheAnalysis(articles.get(index).title(), articles.get(index).content(), results[index]);
+                replayStore.record(ReplayStore.Kind.CLAUDE, "analysis:" + title, message);
+                succeeded++;
+            } catch (Exception e) {
+                logger.warn("Unusable batch result for '{}': {}", title, e.getMessage());
+            }
+        }
+        logger.info("Message batch {} returned {} of {} analyses", batchId, succeeded, requests.size());
+    }
+
+    // input_tokens counts only what came after the last cache breakpoint
+    private void recordUsage(JsonNode usage) {
+        if (usage.isMissingNode()) return;
+        cacheReadTokens.increment(usage.path("cache_read_input_tokens").asLong());
+        cacheWriteTokens.increment(usage.path("cache_creation_input_tokens").asLong());
+        uncachedInputTokens.increment(usage.path("input_tokens").asLong());
+        outputTokens.increment(usage.path("output_tokens").asLong());
+    }
+
     /* ============================================================
        PRIVATE — WORD COUNT ENFORCEMENT (Java, not Claude)
        ============================================================ */
@@ -411,4 +743,91 @@ public class AiSummarizationService {
         if (words.length <= maxWords) return text;
         return String.join(" ", Arrays.copyOfRange(words, 0, maxWords));
     }
-}
\ No newline at end of file
+
+    /* ============================================================
+       HTTP — Anthropic API calls, with record/replay
+       ============================================================ */
+
+    /**
+     * POSTs to the Messages API and emits the raw response body, without
+     * blocking a thread. At most app.ai.max-in-flight requests are open at
+     * once; the rest wait their turn. Fixtures are keyed by article title
+     * rather than the prompt, because the prompt embeds recent headlines
+     * that differ from run to run.
+     */
+    private Mono<String> postToClaude(String fixtureKey, ObjectNode requestBody) {
+        if (replayStore.isReplaying()) {
+            // The store sleeps to imitate latency; keep that off the caller's event loop
+            return Mono.fromCallable(() -> replayStore.replayString(ReplayStore.Kind.CLAUDE, fixtureKey)
+                            .orElseThrow(() -> new RuntimeException("No recorded Claude response for " + fixtureKey)))
+                    .subscribeOn(Schedulers.boundedElastic());
+        }
+
+        Mono<String> single = rateLimiter.acquire()
+                .then(inFlightLimiter.run(() ->
+                        exchange(webClient.post().uri(baseUrl + MESSAGES_PATH).bodyValue(requestBody))))
+                .doOnNext(body -> rateLimiter.onSuccess())
+                .doOnError(ClaudeApiException.class, e -> {
+                    if (e.status == 429) rateLimiter.onThrottled(e.retryAfter);
+                });
+        Mono<String> attempt = single;
+        if (hedgeEnabled) {
+            // Whichever answers first wins; the other is cancelled and frees its slot
+            Mono<String> hedge = Mono.delay(Duration.ofMillis(hedgeDelayMs))
+                    .then(Mono.defer(() -> {
+                        hedges.increment();
+                        return single;
+                    }));
+            attempt = Mono.firstWithSignal(single, hedge);
+        }
+
+        Mono<String> call = circuitBreaker.guard(attempt
+                .retryWhen(Retry.backoff(Math.max(0, maxRetries), Duration.ofSeconds(2))
+                        .maxBackoff(Duration.ofSeconds(30))
+                        .filter(AiSummarizationService::isTransient)
+                        .doBeforeRetry(signal -> logger.warn("Retrying Claude call ({}): {}",
+                                signal.totalRetries() + 1, signal.failure().getMessage()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure())));
+
+        if (replayStore.isRecording()) {
+            call = call.publishOn(Schedulers.boundedElastic())
+                    .doOnNext(body -> replayStore.record(ReplayStore.Kind.CLAUDE, fixtureKey, body));
+        }
+        return call;
+    }
+
+    // Auth headers, error logging and the body as a String, for any Anthropic endpoint
+    private Mono<String> exchange(WebClient.RequestHeadersSpec<?> request) {
+        return request
+                .header("x-api-key", apiKey)
+                .header("anthropic-version", ANTHROPIC_VERSION)
+                .retrieve()
+                .onStatus(status -> status.is4xxClientError() || status.is5xxServerError(),
+                        response -> response.bodyToMono(String.class)
+                                .doOnNext(body -> logger.error("Claude API error body: {}", body))
+                                .then(Mono.error(new ClaudeApiException(response.statusCode().value(),
+                                        retryAfter(response.headers().asHttpHeaders())))))
+                .bodyToMono(String.class);
+    }
+
+    // retry-after in seconds; Anthropic doesn't send the HTTP-date form
+    private static Duration retryAfter(HttpHeaders headers) {
+        String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null) return null;
+        try {
+            return Duration.ofSeconds(Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    // Worth retrying, and a sign of trouble on the API's side: throttling, 5xx/529, timeouts, connection errors
+    private static boolean isTransient(Throwable e) {
+        if (e instanceof ClaudeApiException api) return api.status == 429 || api.status >= 500;
+        return e instanceof WebClientRequestException || e instanceof TimeoutException;
+    }
+
+    private static boolean isUnavailable(Throwable e) {
+        return isTransient(e) || e instanceof CircuitBreaker.OpenException;
+    }
+}
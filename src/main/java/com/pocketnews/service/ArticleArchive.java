@@ -0,0 +1,577 @@
+package com.pocketnews.service;
+
+import com.pocketnews.RssFeedClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Local archive of every RSS item we scraped, keyed by canonical URL.
+ *
+ * Records are deflate-compressed and appended to segment files that roll
+ * over at segmentMaxBytes; nothing is rewritten in place. A memory-mapped
+ * open-addressing table maps the hash of each canonical URL to the segment
+ * and offset of its newest record, so a lookup is one probe plus one read.
+ *
+ * Ingestion checks the archive before scraping, which makes retries and
+ * re-runs (new prompt, new model) free of outbound fetches. Compaction
+ * copies records younger than retentionDays into fresh segments and drops
+ * the rest, along with superseded versions.
+ */
+@Component
+public class ArticleArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArticleArchive.class);
+
+    private static final String INDEX_FILE = "index.bin";
+    private static final int INDEX_MAGIC = 0x50414931; // "PAI1"
+    private static final int HEADER_BYTES = 16;
+    // key(8) segment(4) length(4) offset(8) archivedAt(8)
+    private static final int SLOT_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1 << 14;
+    private static final double MAX_LOAD = 0.7;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.dir:./data/archive}")
+    private String dir;
+
+    @Value("${app.archive.segment-max-bytes:67108864}")
+    private long segmentMaxBytes;
+
+    @Value("${app.archive.retention-days:30}")
+    private int retentionDays;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    private Path root;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private int capacity;
+    private int size;
+
+    private final TreeMap<Integer, FileChannel> segments = new TreeMap<>();
+    private int activeSegment;
+
+    // Lookups share the read lock; appends, compaction, open and close take the
+    // write lock. Not synchronized: these hold it across file I/O, which would
+    // pin the carrier of every virtual thread waiting on it.
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public ArticleArchive(MeterRegistry meterRegistry) {
+        this.hits = meterRegistry.counter("pocketnews.archive.lookups", "result", "hit");
+        this.misses = meterRegistry.counter("pocketnews.archive.lookups", "result", "miss");
+    }
+
+    /** A stored item plus when it was archived. */
+    public record ArchivedArticle(String canonicalUrl, LocalDateTime archivedAt, RssFeedClient.RawArticle article) {}
+
+    // Where a record lives; offset points at its length prefix
+    private record Location(int segment, long offset, int length, long archivedAt) {}
+
+    @PostConstruct
+    public void open() {
+        if (!enabled) return;
+        lock.writeLock().lock();
+        try {
+            root = Path.of(dir);
+            Files.createDirectories(root);
+
+            try (Stream<Path> files = Files.list(root)) {
+                for (Path file : files.filter(f -> f.getFileName().toString().matches("segment-\\d+\\.log")).toList()) {
+                    segments.put(segmentId(file), FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+                }
+            }
+            activeSegment = segments.isEmpty() ? 1 : segments.lastKey();
+            if (segments.isEmpty()) segments.put(activeSegment, openSegment(activeSegment));
+
+            if (!loadIndex()) {
+                logger.warn("Article archive index missing or unreadable, rebuilding from segments");
+                rebuildIndex();
+            }
+            logger.info("Article archive opened at {}: {} articles in {} segments", root, size, segments.size());
+        } catch (IOException e) {
+            logger.error("Could not open article archive at {}, continuing without it: {}", dir, e.getMessage());
+            enabled = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            if (index != null) index.force();
+            closeQuietly(indexChannel);
+            segments.values().forEach(this::closeQuietly);
+            segments.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The newest archived copy of this URL, if any. A copy without
+     * fullContent (the scrape had failed) is a miss, so the item is scraped
+     * again.
+     */
+    public Optional<ArchivedArticle> find(String canonicalUrl) {
+        if (!enabled || canonicalUrl == null) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            Location location = lookup(keyOf(canonicalUrl));
+            ArchivedArticle archived = location == null ? null : read(location);
+            // Different URL with the same 64-bit key — treat as a miss
+            if (archived == null || !canonicalUrl.equals(archived.canonicalUrl())
+                    || archived.article().fullContent() == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(archived);
+        } catch (IOException | DataFormatException e) {
+            logger.warn("Could not read archived article {}: {}", canonicalUrl, e.getMessage());
+            misses.increment();
+            return Optional.empty();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record; the newest one for a URL wins. Items without
+     * fullContent aren't archived: find() would only treat them as a miss.
+     */
+    public void append(String canonicalUrl, RssFeedClient.RawArticle article) {
+        if (!enabled || canonicalUrl == null || article.fullContent() == null) return;
+        long key = keyOf(canonicalUrl);
+        long archivedAt = System.currentTimeMillis();
+        byte[] record;
+        try {
+            // Encoded and deflated before taking the lock, so appends only queue up for the write itself
+            record = compress(encode(key, archivedAt, canonicalUrl, article));
+        } catch (IOException e) {
+            logger.warn("Could not archive article {}: {}", canonicalUrl, e.getMessage());
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            FileChannel segment = segments.get(activeSegment);
+            if (segment.size() + record.length + 4 > segmentMaxBytes && segment.size() > 0) {
+                activeSegment++;
+                segment = openSegment(activeSegment);
+                segments.put(activeSegment, segment);
+            }
+
+            long offset = segment.size();
+            ByteBuffer buffer = ByteBuffer.allocate(4 + record.length).putInt(record.length).put(record).flip();
+            while (buffer.hasRemaining()) segment.write(buffer, offset + buffer.position());
+
+            put(key, new Location(activeSegment, offset, record.length, archivedAt));
+        } catch (IOException e) {
+            logger.warn("Could not archive article {}: {}", canonicalUrl, e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Feeds every live archived article to {@code consumer}, oldest segment first — for offline reprocessing. */
+    public void forEach(Consumer<ArchivedArticle> consumer) {
+        if (!enabled) return;
+        lock.readLock().lock();
+        try {
+            for (Location location : liveLocations()) {
+                try {
+                    ArchivedArticle archived = read(location);
+                    if (archived != null) consumer.accept(archived);
+                } catch (IOException | DataFormatException e) {
+                    logger.warn("Skipping unreadable archive record in segment {}: {}", location.segment(), e.getMessage());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /* ============================================================
+       COMPACTION — keep records newer than the retention window
+       ============================================================ */
+
+    public void compact() {
+        if (!enabled) return;
+        long cutoff = Instant.now().minus(retentionDays, ChronoUnit.DAYS).toEpochMilli();
+        lock.writeLock().lock();
+        try {
+            List<Location> live = liveLocations();
+            List<Location> kept = live.stream().filter(l -> l.archivedAt() >= cutoff).toList();
+
+            long totalBytes = 0;
+            for (FileChannel segment : segments.values()) totalBytes += segment.size();
+            long keptBytes = kept.stream().mapToLong(l -> 4L + l.length()).sum();
+            if (kept.size() == live.size() && keptBytes == totalBytes) {
+                logger.info("Article archive compaction: nothing to reclaim ({} articles)", size);
+                return;
+            }
+
+            // Copy surviving records byte-for-byte into new segments, then swap
+            Map<Integer, FileChannel> oldSegments = new TreeMap<>(segments);
+            int nextSegment = activeSegment + 1;
+            FileChannel target = openSegment(nextSegment);
+            Map<Integer, FileChannel> newSegments = new TreeMap<>();
+            newSegments.put(nextSegment, target);
+
+            List<Map.Entry<Long, Location>> moved = new ArrayList<>();
+            for (Location location : kept) {
+                if (target.size() + location.length() + 4 > segmentMaxBytes && target.size() > 0) {
+                    target = openSegment(++nextSegment);
+                    newSegments.put(nextSegment, target);
+                }
+                ByteBuffer buffer = readRaw(location, true);
+                long key = keyOf(buffer);
+                long offset = target.size();
+                while (buffer.hasRemaining()) target.write(buffer, offset + buffer.position());
+                moved.add(Map.entry(key, new Location(nextSegment, offset, location.length(), location.archivedAt())));
+            }
+
+            segments.clear();
+            segments.putAll(newSegments);
+            activeSegment = nextSegment;
+            resetIndex(Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(1, moved.size()) * 2) << 1));
+            for (Map.Entry<Long, Location> entry : moved) put(entry.getKey(), entry.getValue());
+
+            for (Map.Entry<Integer, FileChannel> old : oldSegments.entrySet()) {
+                closeQuietly(old.getValue());
+                Files.deleteIfExists(segmentPath(old.getKey()));
+            }
+            logger.info("Article archive compacted: kept {} of {} articles, {} KB → {} KB",
+                    kept.size(), live.size(), totalBytes / 1024, keptBytes / 1024);
+        } catch (IOException e) {
+            logger.error("Article archive compaction failed: {}", e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /* ============================================================
+       INDEX — memory-mapped open addressing, linear probing
+       ============================================================ */
+
+    private boolean loadIndex() throws IOException {
+        Path file = root.resolve(INDEX_FILE);
+        if (!Files.exists(file) || Files.size(file) < HEADER_BYTES) return false;
+
+        indexChannel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexChannel.size());
+        capacity = index.getInt(4);
+        size = index.getInt(8);
+        boolean valid = index.getInt(0) == INDEX_MAGIC
+                && Integer.bitCount(capacity) == 1
+                && indexChannel.size() == HEADER_BYTES + (long) capacity * SLOT_BYTES;
+        if (!valid) closeQuietly(indexChannel);
+        return valid;
+    }
+
+    // Replays every segment in order; later records override earlier ones
+    private void rebuildIndex() throws IOException {
+        resetIndex(INITIAL_CAPACITY);
+        for (Map.Entry<Integer, FileChannel> segment : segments.entrySet()) {
+            FileChannel channel = segment.getValue();
+            long offset = 0;
+            while (offset + 4 <= channel.size()) {
+                ByteBuffer prefix = ByteBuffer.allocate(4);
+                channel.read(prefix, offset);
+                int length = prefix.flip().getInt();
+                if (length <= 0 || offset + 4 + length > channel.size()) break; // torn tail write
+                try {
+                    ArchivedArticle archived = read(new Location(segment.getKey(), offset, length, 0));
+                    if (archived != null) {
+                        put(keyOf(archived.canonicalUrl()), new Location(segment.getKey(), offset, length,
+                                archived.archivedAt().toInstant(ZoneOffset.UTC).toEpochMilli()));
+                    }
+                } catch (DataFormatException e) {
+                    logger.warn("Skipping corrupt archive record at {}:{}", segment.getKey(), offset);
+                }
+                offset += 4 + length;
+            }
+        }
+    }
+
+    private void resetIndex(int newCapacity) throws IOException {
+        closeQuietly(indexChannel);
+        Path tmp = root.resolve(INDEX_FILE + ".tmp");
+        Files.deleteIfExists(tmp);
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer fresh = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    HEADER_BYTES + (long) newCapacity * SLOT_BYTES);
+            fresh.putInt(0, INDEX_MAGIC).putInt(4, newCapacity).putInt(8, 0);
+            fresh.force();
+        }
+        Files.move(tmp, root.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        loadIndex();
+    }
+
+    private Location lookup(long key) {
+        int mask = capacity - 1;
+        for (int slot = slotOf(key, mask), probes = 0; probes < capacity; slot = (slot + 1) & mask, probes++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long stored = index.getLong(at);
+            if (stored == 0) return null;
+            if (stored == key) {
+                return new Location(index.getInt(at + 8), index.getLong(at + 16),
+                        index.getInt(at + 12), index.getLong(at + 24));
+            }
+        }
+        return null;
+    }
+
+    private void put(long key, Location location) throws IOException {
+        if (size + 1 > capacity * MAX_LOAD) grow();
+
+        int mask = capacity - 1;
+        for (int slot = slotOf(key, mask); ; slot = (slot + 1) & mask) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long stored = index.getLong(at);
+            if (stored == 0 || stored == key) {
+                if (stored == 0) index.putInt(8, ++size);
+                index.putInt(at + 8, location.segment());
+                index.putInt(at + 12, location.length());
+                index.putLong(at + 16, location.offset());
+                index.putLong(at + 24, location.archivedAt());
+                // Key last, so a half-written slot reads as empty
+                index.putLong(at, key);
+                return;
+            }
+        }
+    }
+
+    private void grow() throws IOException {
+        List<Map.Entry<Long, Location>> entries = entries();
+        resetIndex(capacity * 2);
+        for (Map.Entry<Long, Location> entry : entries) put(entry.getKey(), entry.getValue());
+    }
+
+    private List<Map.Entry<Long, Location>> entries() {
+        List<Map.Entry<Long, Location>> entries = new ArrayList<>(size);
+        for (int slot = 0; slot < capacity; slot++) {
+            int at = HEADER_BYTES + slot * SLOT_BYTES;
+            long key = index.getLong(at);
+            if (key != 0) {
+                entries.add(Map.entry(key, new Location(index.getInt(at + 8), index.getLong(at + 16),
+                        index.getInt(at + 12), index.getLong(at + 24))));
+            }
+        }
+        return entries;
+    }
+
+    // Sorted by position so scans read segments sequentially
+    private List<Location> liveLocations() {
+        return entries().stream()
+                .map(Map.Entry::getValue)
+                .sorted(Comparator.comparingInt(Location::segment).thenComparingLong(Location::offset))
+                .toList();
+    }
+
+    private int slotOf(long key, int mask) {
+        return (int) (key ^ (key >>> 32)) & mask;
+    }
+
+    /* ============================================================
+       RECORDS — [int length][deflated payload]
+       ============================================================ */
+
+    private ArchivedArticle read(Location location) throws IOException, DataFormatException {
+        ByteBuffer raw = readRaw(location, false);
+        byte[] compressed = new byte[raw.remaining()];
+        raw.get(compressed);
+        return decode(decompress(compressed));
+    }
+
+    // withPrefix: include the 4-byte length, for copying records verbatim
+    private ByteBuffer readRaw(Location location, boolean withPrefix) throws IOException {
+        FileChannel segment = segments.get(location.segment());
+        if (segment == null) throw new IOException("segment " + location.segment() + " is gone");
+        int skip = withPrefix ? 0 : 4;
+        ByteBuffer buffer = ByteBuffer.allocate(location.length() + 4 - skip);
+        long position = location.offset() + skip;
+        while (buffer.hasRemaining()) {
+            if (segment.read(buffer, position + buffer.position()) < 0) throw new IOException("truncated record");
+        }
+        return buffer.flip();
+    }
+
+    // Key of a verbatim record (prefix included), read back from its payload
+    private long keyOf(ByteBuffer record) throws IOException {
+        byte[] compressed = new byte[record.remaining() - 4];
+        record.duplicate().position(4).get(compressed);
+        try {
+            return new DataInputStream(new ByteArrayInputStream(decompress(compressed))).readLong();
+        } catch (DataFormatException e) {
+            throw new IOException("corrupt record", e);
+        }
+    }
+
+    private byte[] encode(long key, long archivedAt, String canonicalUrl, RssFeedClient.RawArticle article)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeLong(key);
+        out.writeLong(archivedAt);
+        writeString(out, canonicalUrl);
+        writeString(out, article.title());
+        writeString(out, article.description());
+        writeString(out, article.fullContent());
+        writeString(out, article.sourceUrl());
+        writeString(out, article.sourceName());
+        writeString(out, article.imageUrl());
+        writeString(out, article.guid());
+        writeString(out, article.publishedAt() == null ? null : article.publishedAt().toString());
+        return bytes.toByteArray();
+    }
+
+    private ArchivedArticle decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        in.readLong();
+        LocalDateTime archivedAt = LocalDateTime.ofInstant(Instant.ofEpochMilli(in.readLong()), ZoneOffset.UTC);
+        String canonicalUrl = readString(in);
+        String title = readString(in);
+        String description = readString(in);
+        String fullContent = readString(in);
+        String sourceUrl = readString(in);
+        String sourceName = readString(in);
+        String imageUrl = readString(in);
+        String guid = readString(in);
+        String publishedAt = readString(in);
+        return new ArchivedArticle(canonicalUrl, archivedAt, new RssFeedClient.RawArticle(
+                title, description, fullContent, sourceUrl, sourceName, imageUrl, guid,
+                publishedAt == null ? null : LocalDateTime.parse(publishedAt), null));
+    }
+
+    private void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        return new String(in.readNBytes(length), StandardCharsets.UTF_8);
+    }
+
+    private byte[] compress(byte[] payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.length / 2 + 64);
+            byte[] chunk = new byte[4096];
+            while (!deflater.finished()) out.write(chunk, 0, deflater.deflate(chunk));
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private byte[] decompress(byte[] compressed) throws DataFormatException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.length * 3);
+            byte[] chunk = new byte[4096];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(chunk);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new DataFormatException("truncated deflate stream");
+                }
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /* ============================================================
+       FILES
+       ============================================================ */
+
+    // First 8 bytes of SHA-256; 0 marks an empty index slot so it's never a key
+    private long keyOf(String canonicalUrl) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(canonicalUrl.getBytes(StandardCharsets.UTF_8));
+            long key = ByteBuffer.wrap(digest).getLong();
+            return key == 0 ? 1 : key;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private FileChannel openSegment(int id) throws IOException {
+        return FileChannel.open(segmentPath(id), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private Path segmentPath(int id) {
+        return root.resolve(String.format("segment-%06d.log", id));
+    }
+
+    private int segmentId(Path file) {
+        String name = file.getFileName().toString();
+        return Integer.parseInt(name.substring("segment-".length(), name.length() - ".log".length()));
+    }
+
+    private void closeQuietly(FileChannel channel) {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // already closed
+        }
+    }
+}
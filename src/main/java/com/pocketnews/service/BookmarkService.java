@@ -24,14 +24,17 @@ public class BookmarkService {
 
     private final BookmarkRepository bookmarkRepository;
     private final NewsRepository newsRepository;
+    private final ThumbnailService thumbnailService;
 
     @Value("${bookmark.expiry.days}")
     private int expiryDays;
 
     public BookmarkService(BookmarkRepository bookmarkRepository,
-                           NewsRepository newsRepository) {
+                           NewsRepository newsRepository,
+                           ThumbnailService thumbnailService) {
         this.bookmarkRepository = bookmarkRepository;
         this.newsRepository = newsRepository;
+        this.thumbnailService = thumbnailService;
     }
 
     /* ============================================================
@@ -124,6 +127,8 @@ public class BookmarkService {
                 news.getShortHeadline(),
                 news.getShortContent(),
                 news.getImageUrl(),
+                thumbnailService.urlOf(news.getThumbnailHash()),
+                news.getBlurHash(),
                 news.getSource(),
                 news.getSourceUrl(),
                 news.getViewCount(),
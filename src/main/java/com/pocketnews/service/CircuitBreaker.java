@@ -0,0 +1,126 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.function.Predicate;
+
+/**
+ * Stops calling a dependency that keeps failing.
+ *
+ * CLOSED    — calls go through; {@code failureThreshold} failures in a row open it.
+ * OPEN      — calls fail at once with OpenException for {@code openFor}.
+ * HALF_OPEN — one probe call goes through; success closes, failure reopens.
+ *
+ * Only errors matching {@code countsAsFailure} count; anything else (e.g.
+ * a malformed request) says nothing about the dependency's health.
+ * Exposes {name}.state (0 closed, 1 half-open, 2 open) and
+ * {name}.transitions tagged with the new state.
+ */
+final class CircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    enum State { CLOSED, HALF_OPEN, OPEN }
+
+    static final class OpenException extends RuntimeException {
+        private OpenException(String name) {
+            super(name + " circuit is open");
+        }
+    }
+
+    private final String name;
+    private final int failureThreshold;
+    private final Duration openFor;
+    private final Predicate<Throwable> countsAsFailure;
+    private final MeterRegistry registry;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAtNanos;
+    private boolean probeInFlight;
+
+    CircuitBreaker(String name, int failureThreshold, Duration openFor,
+                   Predicate<Throwable> countsAsFailure, MeterRegistry registry) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openFor = openFor;
+        this.countsAsFailure = countsAsFailure;
+        this.registry = registry;
+        Gauge.builder(name + ".state", this, breaker -> breaker.state().ordinal())
+                .description("Circuit state: 0 closed, 1 half-open, 2 open")
+                .register(registry);
+    }
+
+    /** Subscribes to {@code call} only if the circuit lets it through, and records the outcome. */
+    <T> Mono<T> guard(Mono<T> call) {
+        return Mono.defer(() -> {
+            boolean probe;
+            synchronized (this) {
+                if (!permit()) return Mono.error(new OpenException(name));
+                probe = state == State.HALF_OPEN;
+            }
+            return call
+                    .doOnSuccess(value -> onSuccess())
+                    .doOnError(e -> onError(e))
+                    // An abandoned probe must not leave the circuit half-open forever
+                    .doOnCancel(() -> {
+                        if (probe) releaseProbe();
+                    });
+        });
+    }
+
+    synchronized State state() {
+        // Report OPEN → HALF_OPEN as soon as it's due, not on the next call
+        if (state == State.OPEN && System.nanoTime() - openedAtNanos >= openFor.toNanos()) {
+            transition(State.HALF_OPEN);
+        }
+        return state;
+    }
+
+    private boolean permit() {
+        State current = state();
+        if (current == State.CLOSED) return true;
+        if (current == State.HALF_OPEN && !probeInFlight) {
+            probeInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    private synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        probeInFlight = false;
+        if (state != State.CLOSED) transition(State.CLOSED);
+    }
+
+    private synchronized void onError(Throwable e) {
+        if (!countsAsFailure.test(e)) {
+            probeInFlight = false;
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            probeInFlight = false;
+            openedAtNanos = System.nanoTime();
+            if (state != State.OPEN) transition(State.OPEN);
+        }
+    }
+
+    private synchronized void releaseProbe() {
+        probeInFlight = false;
+    }
+
+    private void transition(State next) {
+        logger.warn("{} circuit {} → {}{}", name, state, next,
+                next == State.OPEN ? " for " + openFor.toSeconds() + "s after " + consecutiveFailures + " failures" : "");
+        state = next;
+        registry.counter(name + ".transitions", "state", next.name().toLowerCase(Locale.ROOT)).increment();
+    }
+}
@@ -0,0 +1,110 @@
+package com.pocketnews.service;
+
+import com.pocketnews.RssFeedClient;
+import com.pocketnews.entity.FeedCheckpoint;
+import com.pocketnews.repository.FeedCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * Per-feed incremental checkpoints.
+ *
+ * After a feed is fully processed we store its newest item key and pubDate.
+ * The next run hands {@link #stopAt} to the parser, which stops at the first
+ * item at or below that mark, so steady-state work is proportional to the
+ * number of new items rather than the feed size.
+ */
+@Service
+public class FeedCheckpointService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedCheckpointService.class);
+
+    private final FeedCheckpointRepository checkpointRepository;
+
+    public FeedCheckpointService(FeedCheckpointRepository checkpointRepository) {
+        this.checkpointRepository = checkpointRepository;
+    }
+
+    /** Predicate for RssFeedClient.fetchFeed; never matches for a feed without a checkpoint. */
+    public Predicate<RssFeedClient.RawArticle> stopAt(String feedUrl) {
+        FeedCheckpoint checkpoint = checkpointRepository.findById(feedUrl).orElse(null);
+        if (checkpoint == null) return article -> false;
+
+        String lastKey = checkpoint.getLastItemKey();
+        LocalDateTime lastPublished = checkpoint.getLastPublishedAt();
+
+        return article -> {
+            if (lastKey != null && lastKey.equals(article.guid())) return true;
+            return lastPublished != null
+                    && article.publishedAt() != null
+                    && !article.publishedAt().isAfter(lastPublished);
+        };
+    }
+
+    /**
+     * Moves the mark to the newest of {@code articles}. Call only once every
+     * item of the feed has been handled, otherwise unprocessed items would
+     * fall below the mark and never be seen again.
+     */
+    @Transactional
+    public void advance(String feedUrl, List<RssFeedClient.RawArticle> articles) {
+        if (articles.isEmpty()) return;
+
+        // Feeds list newest first; the first item is the key we stop on next time
+        RssFeedClient.RawArticle newest = articles.get(0);
+        LocalDateTime newestPublished = articles.stream()
+                .map(RssFeedClient.RawArticle::publishedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+
+        FeedCheckpoint checkpoint = checkpointRepository.findById(feedUrl).orElseGet(() -> {
+            FeedCheckpoint fresh = new FeedCheckpoint();
+            fresh.setFeedUrl(feedUrl);
+            return fresh;
+        });
+
+        checkpoint.setLastItemKey(newest.guid());
+        if (newestPublished != null
+                && (checkpoint.getLastPublishedAt() == null
+                || newestPublished.isAfter(checkpoint.getLastPublishedAt()))) {
+            checkpoint.setLastPublishedAt(newestPublished);
+        }
+        checkpointRepository.save(checkpoint);
+        logger.debug("Checkpoint for {} moved to {} ({})", feedUrl,
+                checkpoint.getLastItemKey(), checkpoint.getLastPublishedAt());
+    }
+
+    /** The cache validators stored with {@link #saveValidators}, or null if there are none yet. */
+    @Transactional(readOnly = true)
+    public RssFeedClient.FeedValidators validators(String feedUrl) {
+        return checkpointRepository.findById(feedUrl)
+                .filter(c -> c.getEtag() != null || c.getLastModified() != null || c.getBodyHash() != null)
+                .map(c -> new RssFeedClient.FeedValidators(c.getEtag(), c.getLastModified(), c.getBodyHash()))
+                .orElse(null);
+    }
+
+    /**
+     * Stores a feed's cache validators next to its mark, so the first poll
+     * after a restart can still get a 304 or skip an unchanged body.
+     */
+    @Transactional
+    public void saveValidators(String feedUrl, RssFeedClient.FeedValidators validators) {
+        FeedCheckpoint checkpoint = checkpointRepository.findById(feedUrl).orElseGet(() -> {
+            FeedCheckpoint fresh = new FeedCheckpoint();
+            fresh.setFeedUrl(feedUrl);
+            return fresh;
+        });
+        checkpoint.setEtag(validators.etag());
+        checkpoint.setLastModified(validators.lastModified());
+        checkpoint.setBodyHash(validators.bodyHash());
+        checkpointRepository.save(checkpoint);
+    }
+}
@@ -0,0 +1,143 @@
+package com.pocketnews.service;
+
+import com.pocketnews.RssFeedSources;
+import com.pocketnews.dto.FeedScheduleDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decides when each feed is next polled.
+ *
+ * Every feed's publish rate is tracked as a moving average of new items per
+ * hour. The next poll is timed so that roughly targetItemsPerPoll new items
+ * have appeared, clamped between the configured minimum and maximum.
+ * Feeds that keep failing back off exponentially from the minimum.
+ */
+@Component
+public class FeedPollScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FeedPollScheduler.class);
+
+    // Weight of the newest rate sample in the moving average
+    private static final double RATE_SMOOTHING = 0.3;
+
+    // How much a feed's interval grows after a poll that found nothing new
+    private static final double IDLE_GROWTH = 1.5;
+
+    private final Duration minInterval;
+    private final Duration maxInterval;
+    private final double targetItemsPerPoll;
+
+    private final Map<String, PollState> states = new ConcurrentHashMap<>();
+
+    public FeedPollScheduler(
+            @Value("${app.polling.min-interval-minutes:5}") long minIntervalMinutes,
+            @Value("${app.polling.max-interval-minutes:120}") long maxIntervalMinutes,
+            @Value("${app.polling.target-items-per-poll:3}") double targetItemsPerPoll) {
+        this.minInterval = Duration.ofMinutes(minIntervalMinutes);
+        this.maxInterval = Duration.ofMinutes(Math.max(minIntervalMinutes, maxIntervalMinutes));
+        this.targetItemsPerPoll = targetItemsPerPoll;
+
+        // Every feed is due straight away on startup
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (RssFeedSources.FeedGroup feed : RssFeedSources.FEED_GROUPS) {
+            states.put(feed.url(), new PollState(feed, now, null, minInterval, 0.0, 0, null));
+        }
+    }
+
+    private record PollState(
+            RssFeedSources.FeedGroup feed,
+            LocalDateTime nextPollAt,
+            LocalDateTime lastPolledAt,
+            Duration interval,
+            double itemsPerHour,
+            int consecutiveFailures,
+            NewsIngestionService.FeedStatus lastStatus
+    ) {}
+
+    /** Feeds whose next poll time has passed, in FEED_GROUPS order. */
+    public List<RssFeedSources.FeedGroup> dueFeeds() {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return RssFeedSources.FEED_GROUPS.stream()
+                .filter(feed -> !states.get(feed.url()).nextPollAt().isAfter(now))
+                .toList();
+    }
+
+    /** Updates rates and next poll times from a finished ingestion run. */
+    public void record(List<NewsIngestionService.FeedResult> results) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        for (NewsIngestionService.FeedResult result : results) {
+            states.computeIfPresent(result.feedUrl(), (url, state) -> next(state, result, now));
+        }
+    }
+
+    /** Backs off every feed of a run that failed as a whole (e.g. DB unavailable). */
+    public void recordFailure(List<RssFeedSources.FeedGroup> feeds) {
+        record(feeds.stream()
+                .map(feed -> new NewsIngestionService.FeedResult(feed.url(), feed.categoryHints(),
+                        NewsIngestionService.FeedStatus.FAILED, 0, 0, 0, 0, 0))
+                .toList());
+    }
+
+    private PollState next(PollState state, NewsIngestionService.FeedResult result, LocalDateTime now) {
+        if (result.status() != NewsIngestionService.FeedStatus.OK) {
+            int failures = state.consecutiveFailures() + 1;
+            Duration backoff = capped(minInterval.multipliedBy(1L << Math.min(failures, 20)));
+            logger.info("Feed {} failed {} times in a row, next poll in {} min",
+                    result.feedUrl(), failures, backoff.toMinutes());
+            return new PollState(state.feed(), now.plus(backoff), now, backoff,
+                    state.itemsPerHour(), failures, result.status());
+        }
+
+        // fetched counts items above the feed's checkpoint, i.e. new since last poll
+        double rate = state.itemsPerHour();
+        Duration interval;
+        if (state.lastPolledAt() == null) {
+            // First poll returns the whole feed, which says nothing about its rate
+            interval = minInterval;
+        } else {
+            double hours = Math.max(Duration.between(state.lastPolledAt(), now).toSeconds(), 60) / 3600.0;
+            double sample = result.fetched() / hours;
+            rate = RATE_SMOOTHING * sample + (1 - RATE_SMOOTHING) * rate;
+
+            if (result.fetched() == 0) {
+                interval = capped(Duration.ofSeconds((long) (state.interval().toSeconds() * IDLE_GROWTH)));
+            } else {
+                interval = capped(Duration.ofSeconds((long) (targetItemsPerPoll / Math.max(rate, 1e-6) * 3600)));
+            }
+        }
+
+        return new PollState(state.feed(), now.plus(interval), now, interval, rate, 0, result.status());
+    }
+
+    private Duration capped(Duration interval) {
+        if (interval.compareTo(minInterval) < 0) return minInterval;
+        if (interval.compareTo(maxInterval) > 0) return maxInterval;
+        return interval;
+    }
+
+    public List<FeedScheduleDTO> getSchedule() {
+        return RssFeedSources.FEED_GROUPS.stream()
+                .map(feed -> states.get(feed.url()))
+                .map(state -> new FeedScheduleDTO(
+                        state.feed().url(),
+                        state.feed().categoryHints(),
+                        state.nextPollAt(),
+                        state.lastPolledAt(),
+                        state.interval().toMinutes(),
+                        Math.round(state.itemsPerHour() * 100) / 100.0,
+                        state.consecutiveFailures(),
+                        state.lastStatus() != null ? state.lastStatus().name() : null
+                ))
+                .toList();
+    }
+}
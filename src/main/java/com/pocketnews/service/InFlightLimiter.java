@@ -0,0 +1,92 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Non-blocking counterpart of a Semaphore for Reactor calls: at most
+ * {@code limit} calls are subscribed at once, the rest wait in FIFO order
+ * without holding a thread. Exposes {name}.in_flight and {name}.waiting.
+ */
+final class InFlightLimiter {
+
+    private final AtomicInteger available;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Queue<Waiter> waiters = new ConcurrentLinkedQueue<>();
+
+    InFlightLimiter(String name, int limit, MeterRegistry registry) {
+        this.available = new AtomicInteger(Math.max(1, limit));
+        Gauge.builder(name + ".in_flight", inFlight, AtomicInteger::get)
+                .description("Requests currently in flight")
+                .register(registry);
+        Gauge.builder(name + ".waiting", waiters, Queue::size)
+                .description("Requests waiting for an in-flight slot")
+                .register(registry);
+    }
+
+    // granted flips once: either the permit is handed over or the wait is cancelled
+    private static final class Waiter {
+        private final MonoSink<Boolean> sink;
+        private final AtomicBoolean settled = new AtomicBoolean();
+
+        private Waiter(MonoSink<Boolean> sink) {
+            this.sink = sink;
+        }
+    }
+
+    /** Subscribes to {@code call} once a slot is free and frees it when the call ends, however it ends. */
+    <T> Mono<T> run(Supplier<Mono<T>> call) {
+        return Mono.usingWhen(acquire(),
+                permit -> call.get(),
+                permit -> Mono.fromRunnable(this::release),
+                (permit, error) -> Mono.fromRunnable(this::release),
+                permit -> Mono.fromRunnable(this::release));
+    }
+
+    private Mono<Boolean> acquire() {
+        return Mono.create(sink -> {
+            Waiter waiter = new Waiter(sink);
+            sink.onCancel(() -> {
+                if (waiter.settled.compareAndSet(false, true)) {
+                    waiters.remove(waiter);
+                } else {
+                    // Granted but cancelled before delivery — usingWhen never saw it, so give it back
+                    release();
+                }
+            });
+            waiters.offer(waiter);
+            drain();
+        });
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        available.incrementAndGet();
+        drain();
+    }
+
+    private void drain() {
+        while (!waiters.isEmpty()) {
+            int free = available.get();
+            if (free == 0) return;
+            if (!available.compareAndSet(free, free - 1)) continue;
+
+            Waiter waiter = waiters.poll();
+            if (waiter == null || !waiter.settled.compareAndSet(false, true)) {
+                // Nobody to hand it to after all
+                available.incrementAndGet();
+                continue;
+            }
+            inFlight.incrementAndGet();
+            waiter.sink.success(Boolean.TRUE);
+        }
+    }
+}
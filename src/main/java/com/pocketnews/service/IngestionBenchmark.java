@@ -0,0 +1,91 @@
+package com.pocketnews.service;
+
+import com.pocketnews.RssFeedSources;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end ingestion benchmark, active only with the "benchmark" profile.
+ *
+ * Runs one full ingestion of every feed — normally against recorded
+ * fixtures (app.replay.mode=replay, see ReplayStore) so results are
+ * repeatable offline — then logs articles per second and the per-stage
+ * timers. Point the datasource at a scratch database: the run saves
+ * articles and moves feed checkpoints like a real one.
+ *
+ *   1. record:    SPRING_PROFILES_ACTIVE=record    (live run, saves fixtures)
+ *   2. benchmark: SPRING_PROFILES_ACTIVE=benchmark (replays them)
+ */
+@Component
+@Profile("benchmark")
+public class IngestionBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestionBenchmark.class);
+
+    private final NewsIngestionService newsIngestionService;
+    private final MeterRegistry meterRegistry;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.exit:true}")
+    private boolean exitWhenDone;
+
+    public IngestionBenchmark(NewsIngestionService newsIngestionService,
+                              MeterRegistry meterRegistry,
+                              ConfigurableApplicationContext context) {
+        this.newsIngestionService = newsIngestionService;
+        this.meterRegistry = meterRegistry;
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        logger.info("=== INGESTION BENCHMARK: {} feeds ===", RssFeedSources.FEED_GROUPS.size());
+
+        long started = System.nanoTime();
+        List<NewsIngestionService.FeedResult> results = newsIngestionService.ingestFeeds(RssFeedSources.FEED_GROUPS);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        int fetched = results.stream().mapToInt(NewsIngestionService.FeedResult::fetched).sum();
+        int saved = results.stream().mapToInt(NewsIngestionService.FeedResult::saved).sum();
+        int skipped = results.stream().mapToInt(NewsIngestionService.FeedResult::skipped).sum();
+        int failed = results.stream().mapToInt(NewsIngestionService.FeedResult::failed).sum();
+
+        logger.info("Wall time:       {} s", String.format("%.2f", seconds));
+        logger.info("Items fetched:   {} ({}/s)", fetched, String.format("%.2f", fetched / seconds));
+        logger.info("Articles saved:  {} ({}/s)", saved, String.format("%.2f", saved / seconds));
+        logger.info("Skipped/failed:  {}/{}", skipped, failed);
+
+        logger.info("Per-stage timings (count, mean ms, max ms, total s):");
+        reportTimers("pocketnews.pipeline.stage", "stage");
+        reportTimers("pocketnews.summarize.wait", "category");
+        reportTimers("pocketnews.ingestion.connection.hold", "operation");
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> failed == 0 ? 0 : 1));
+        }
+    }
+
+    private void reportTimers(String name, String tag) {
+        meterRegistry.find(name).timers().stream()
+                .filter(timer -> timer.count() > 0)
+                .sorted(Comparator.comparingDouble((Timer timer) -> timer.totalTime(TimeUnit.SECONDS)).reversed())
+                .forEach(timer -> logger.info("  {}[{}] {} × {} ms (max {} ms), {} s total",
+                        name, timer.getId().getTag(tag), timer.count(),
+                        String.format("%.1f", timer.mean(TimeUnit.MILLISECONDS)),
+                        String.format("%.1f", timer.max(TimeUnit.MILLISECONDS)),
+                        String.format("%.2f", timer.totalTime(TimeUnit.SECONDS))));
+    }
+}
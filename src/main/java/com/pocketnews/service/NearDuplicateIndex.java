@@ -0,0 +1,239 @@
+package com.pocketnews.service;
+
+import com.pocketnews.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Local near-duplicate detection, run before an article is sent to Claude.
+ *
+ * Each article is reduced to a 64-bit SimHash of its title and content.
+ * Fingerprints are bucketed by four 16-bit bands: two fingerprints within
+ * MAX_DISTANCE (3) bits must share at least one band exactly, so a lookup
+ * only compares against the few fingerprints in four buckets instead of
+ * every active story.
+ */
+@Component
+public class NearDuplicateIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(NearDuplicateIndex.class);
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 64 / BANDS;
+    private static final int MAX_DISTANCE = 3;
+
+    // Too few tokens make SimHash unstable; such texts are never called duplicates
+    private static final int MIN_TOKENS = 8;
+
+    // Only the start of the body matters for "same story"
+    private static final int MAX_CONTENT_CHARS = 1000;
+
+    private final NewsRepository newsRepository;
+
+    // Guards buckets and size. Every operation writes, so a read/write lock bought nothing
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Integer, List<Fingerprint>> buckets = new HashMap<>();
+    private int size;
+
+    private record Fingerprint(long hash, long addedAt) {}
+
+    public NearDuplicateIndex(NewsRepository newsRepository) {
+        this.newsRepository = newsRepository;
+    }
+
+    /**
+     * Loads fingerprints of all active news so restarts keep catching repeats.
+     * Uses the fingerprint stored with each row (News.simHash), taken from
+     * the same scraped text tryClaim sees; rows saved before it existed are
+     * left out and simply age out.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<NewsRepository.NewsFingerprintView> active = newsRepository.findActiveFingerprints();
+        lock.lock();
+        try {
+            buckets.clear();
+            size = 0;
+            for (NewsRepository.NewsFingerprintView news : active) {
+                if (news.getSimHash() != 0) {
+                    add(new Fingerprint(news.getSimHash(),
+                            news.getPublishedAt().toInstant(ZoneOffset.UTC).toEpochMilli()));
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Near-duplicate index rebuilt with {} stories", size);
+    }
+
+    /**
+     * The fingerprint tryClaim uses for this text, to store with the saved
+     * News; 0 when the text is too short to fingerprint.
+     */
+    public long fingerprint(String title, String content) {
+        return simHash(title, content);
+    }
+
+    /**
+     * Atomically checks the article against the index and, if it isn't a near
+     * duplicate, adds it. Returns false for a near duplicate. Two feed workers
+     * racing on the same story can't both get true.
+     */
+    public boolean tryClaim(String title, String content) {
+        long hash = simHash(title, content);
+        if (hash == 0) return true;
+
+        lock.lock();
+        try {
+            if (findNear(hash)) return false;
+            add(new Fingerprint(hash, System.currentTimeMillis()));
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Undoes a tryClaim for an article that never got summarized, so the
+     * retry on a later run isn't taken for a repeat of itself.
+     */
+    public void release(String title, String content) {
+        release(simHash(title, content));
+    }
+
+    /** Same as {@link #release(String, String)}, by fingerprint (e.g. News.simHash). */
+    public void release(long hash) {
+        if (hash == 0) return;
+
+        lock.lock();
+        try {
+            boolean removed = false;
+            for (int band = 0; band < BANDS; band++) {
+                int key = bandKey(hash, band);
+                List<Fingerprint> bucket = buckets.get(key);
+                if (bucket == null) continue;
+                for (int i = bucket.size() - 1; i >= 0; i--) {
+                    if (bucket.get(i).hash() == hash) {
+                        bucket.remove(i);
+                        removed = true;
+                        break;
+                    }
+                }
+                if (bucket.isEmpty()) buckets.remove(key);
+            }
+            if (removed) size--;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Drops fingerprints added before {@code cutoffMillis}, e.g. after expired news is deleted. */
+    public void evictOlderThan(long cutoffMillis) {
+        lock.lock();
+        try {
+            for (List<Fingerprint> bucket : buckets.values()) {
+                bucket.removeIf(f -> f.addedAt() < cutoffMillis);
+            }
+            buckets.values().removeIf(List::isEmpty);
+            // Every fingerprint lives in BANDS buckets
+            size = buckets.values().stream().mapToInt(List::size).sum() / BANDS;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ============================================================
+       PRIVATE — LSH buckets
+       ============================================================ */
+
+    private boolean findNear(long hash) {
+        for (int band = 0; band < BANDS; band++) {
+            List<Fingerprint> bucket = buckets.get(bandKey(hash, band));
+            if (bucket == null) continue;
+            for (Fingerprint candidate : bucket) {
+                if (Long.bitCount(candidate.hash() ^ hash) <= MAX_DISTANCE) return true;
+            }
+        }
+        return false;
+    }
+
+    private void add(Fingerprint fingerprint) {
+        for (int band = 0; band < BANDS; band++) {
+            buckets.computeIfAbsent(bandKey(fingerprint.hash(), band), k -> new ArrayList<>()).add(fingerprint);
+        }
+        size++;
+    }
+
+    private int bandKey(long hash, int band) {
+        int value = (int) ((hash >>> (band * BAND_BITS)) & ((1L << BAND_BITS) - 1));
+        return (band << BAND_BITS) | value;
+    }
+
+    /* ============================================================
+       PRIVATE — SimHash over word bigrams, title weighted double
+       ============================================================ */
+
+    private long simHash(String title, String content) {
+        List<String> titleTokens = tokenize(title);
+        String body = content == null ? "" : content;
+        List<String> bodyTokens = tokenize(body.length() > MAX_CONTENT_CHARS
+                ? body.substring(0, MAX_CONTENT_CHARS) : body);
+        if (titleTokens.size() + bodyTokens.size() < MIN_TOKENS) return 0;
+
+        int[] weights = new int[64];
+        addShingles(titleTokens, 2, weights);
+        addShingles(bodyTokens, 1, weights);
+
+        long hash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) hash |= 1L << bit;
+        }
+        return hash;
+    }
+
+    private void addShingles(List<String> tokens, int weight, int[] weights) {
+        for (int i = 0; i < tokens.size(); i++) {
+            String shingle = i + 1 < tokens.size() ? tokens.get(i) + " " + tokens.get(i + 1) : tokens.get(i);
+            long h = hash64(shingle);
+            for (int bit = 0; bit < 64; bit++) {
+                weights[bit] += ((h >>> bit) & 1) != 0 ? weight : -weight;
+            }
+        }
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() > 2) tokens.add(token);
+        }
+        return tokens;
+    }
+
+    // FNV-1a finished with the murmur3 mixer
+    private long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
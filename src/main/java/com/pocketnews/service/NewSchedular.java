@@ -1,28 +1,49 @@
 package com.pocketnews.service;
 
-import com.pocketnews.service.NewsIngestionService;
+import com.pocketnews.RssFeedSources;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
+// The benchmark drives ingestion itself
 @Component
+@Profile("!benchmark")
 public class NewSchedular {
 
     private static final Logger logger = LoggerFactory.getLogger(NewSchedular.class);
 
     private final NewsIngestionService newsIngestionService;
+    private final FeedPollScheduler feedPollScheduler;
+    private final ArticleArchive articleArchive;
+    private final SummaryCache summaryCache;
 
-    public NewSchedular(NewsIngestionService newsIngestionService) {
+    public NewSchedular(NewsIngestionService newsIngestionService,
+                        FeedPollScheduler feedPollScheduler,
+                        ArticleArchive articleArchive,
+                        SummaryCache summaryCache) {
         this.newsIngestionService = newsIngestionService;
+        this.feedPollScheduler = feedPollScheduler;
+        this.articleArchive = articleArchive;
+        this.summaryCache = summaryCache;
     }
 
-    // Fetch new articles every 1 hour
-
-    @Scheduled(initialDelay = 0, fixedRate = 3600000)
+    // Check every tick which feeds are due; FeedPollScheduler spaces each feed by its own publish rate
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.polling.tick-ms:60000}")
     public void fetchNews() {
-        logger.info("Scheduler triggered: fetching RSS news...");
-        newsIngestionService.ingestAllFeeds(); // ✅ updated method name
+        List<RssFeedSources.FeedGroup> due = feedPollScheduler.dueFeeds();
+        if (due.isEmpty()) return;
+
+        logger.info("Scheduler triggered: fetching {} due RSS feeds...", due.size());
+        try {
+            feedPollScheduler.record(newsIngestionService.ingestFeeds(due));
+        } catch (Exception e) {
+            logger.error("Ingestion run failed: {}", e.getMessage());
+            feedPollScheduler.recordFailure(due);
+        }
     }
 
     @Scheduled(cron = "0 0 0 * * *")
@@ -30,4 +51,16 @@ public class NewSchedular {
         logger.info("Scheduler triggered: cleaning up expired news...");
         newsIngestionService.deleteExpiredNews();
     }
+
+    @Scheduled(cron = "${app.archive.compaction-cron:0 30 0 * * *}")
+    public void compactArticleArchive() {
+        logger.info("Scheduler triggered: compacting article archive...");
+        articleArchive.compact();
+    }
+
+    @Scheduled(cron = "${app.summary-cache.purge-cron:0 15 0 * * *}")
+    public void purgeSummaryCache() {
+        logger.info("Scheduler triggered: purging expired summary cache entries...");
+        summaryCache.purgeExpired();
+    }
 }
@@ -1,25 +1,53 @@
 package com.pocketnews.service;
 
+import com.pocketnews.ArticleScraper;
 import com.pocketnews.RssFeedClient;
 import com.pocketnews.RssFeedSources;
 import com.pocketnews.entity.Category;
 import com.pocketnews.entity.News;
 import com.pocketnews.repository.CategoryRepository;
 import com.pocketnews.repository.NewsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
     @Service
@@ -28,93 +56,935 @@ import java.util.Set;
         private static final Logger logger = LoggerFactory.getLogger(NewsIngestionService.class);
 
         private final RssFeedClient rssFeedClient;
+        private final ArticleScraper articleScraper;
         private final NewsRepository newsRepository;
         private final CategoryRepository categoryRepository;
         private final AiSummarizationService aiSummarizationService;
+        private final SourceUrlDeduplicator sourceUrlDeduplicator;
+        private final SourceUrlCanonicalizer sourceUrlCanonicalizer;
+        private final FeedCheckpointService feedCheckpointService;
+        private final NearDuplicateIndex nearDuplicateIndex;
+        private final ArticleArchive articleArchive;
+        private final SummarizationQueue summarizationQueue;
+        private final ThumbnailService thumbnailService;
+        private final TransactionTemplate transactionTemplate;
+        private final TransactionTemplate readOnlyTransactionTemplate;
+        private final MeterRegistry meterRegistry;
 
         @Value("${app.news.retention-days:2}")
         private int retentionDays;
 
+        // pipeline | batch | concurrent | sequential
+        @Value("${app.ingestion.mode:pipeline}")
+        private String mode;
+
+        @Value("${app.ingestion.max-parallel-feeds:8}")
+        private int maxParallelFeeds;
+
+        @Value("${app.ingestion.feed-timeout-seconds:300}")
+        private long feedTimeoutSeconds;
+
+        @Value("${app.ingestion.persist-batch-size:50}")
+        private int persistBatchSize;
+
+        @Value("${app.ingestion.pipeline.scrape-concurrency:8}")
+        private int scrapeConcurrency;
+
+        @Value("${app.ingestion.pipeline.summarize-concurrency:16}")
+        private int summarizeConcurrency;
+
+        @Value("${app.ingestion.pipeline.thumbnail-concurrency:4}")
+        private int thumbnailConcurrency;
+
+        @Value("${app.ingestion.pipeline.buffer-size:32}")
+        private int stageBufferSize;
+
+        @Value("${app.ingestion.pipeline.persist-flush-ms:2000}")
+        private long persistFlushMs;
+
+        private final PipelineStage fetchStage;
+        private final PipelineStage dedupeStage;
+        private final PipelineStage scrapeStage;
+        private final PipelineStage summarizeStage;
+        private final PipelineStage thumbnailStage;
+        private final PipelineStage persistStage;
+
         public NewsIngestionService(
                 RssFeedClient rssFeedClient,
+                ArticleScraper articleScraper,
                 NewsRepository newsRepository,
                 CategoryRepository categoryRepository,
-                AiSummarizationService aiSummarizationService) {
+                AiSummarizationService aiSummarizationService,
+                SourceUrlDeduplicator sourceUrlDeduplicator,
+                SourceUrlCanonicalizer sourceUrlCanonicalizer,
+                FeedCheckpointService feedCheckpointService,
+                NearDuplicateIndex nearDuplicateIndex,
+                ArticleArchive articleArchive,
+                SummarizationQueue summarizationQueue,
+                ThumbnailService thumbnailService,
+                PlatformTransactionManager transactionManager,
+                MeterRegistry meterRegistry) {
             this.rssFeedClient = rssFeedClient;
+            this.articleScraper = articleScraper;
             this.newsRepository = newsRepository;
             this.categoryRepository = categoryRepository;
             this.aiSummarizationService = aiSummarizationService;
+            this.sourceUrlDeduplicator = sourceUrlDeduplicator;
+            this.sourceUrlCanonicalizer = sourceUrlCanonicalizer;
+            this.feedCheckpointService = feedCheckpointService;
+            this.nearDuplicateIndex = nearDuplicateIndex;
+            this.articleArchive = articleArchive;
+            this.summarizationQueue = summarizationQueue;
+            this.thumbnailService = thumbnailService;
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+            this.readOnlyTransactionTemplate.setReadOnly(true);
+            this.meterRegistry = meterRegistry;
+            this.fetchStage = new PipelineStage("fetch", meterRegistry);
+            this.dedupeStage = new PipelineStage("dedupe", meterRegistry);
+            this.scrapeStage = new PipelineStage("scrape", meterRegistry);
+            this.summarizeStage = new PipelineStage("summarize", meterRegistry);
+            this.thumbnailStage = new PipelineStage("thumbnail", meterRegistry);
+            this.persistStage = new PipelineStage("persist", meterRegistry);
         }
 
-        @Transactional
         public void ingestAllFeeds() {
-            logger.info("Starting RSS ingestion...");
+            ingestFeeds(RssFeedSources.FEED_GROUPS);
+        }
 
-            List<String> categorySlugs = categoryRepository.findAll()
-                    .stream()
-                    .map(Category::getSlug)
-                    .toList();
+        /**
+         * Ingests just the given feeds (e.g. the ones FeedPollScheduler says are
+         * due) and returns each feed's result.
+         *
+         * Deliberately not @Transactional: RSS downloads, scraping and Claude
+         * calls must not pin one of the few pooled connections. Only the short
+         * reads and batch writes below open a transaction.
+         */
+        public List<FeedResult> ingestFeeds(List<RssFeedSources.FeedGroup> feeds) {
+            logger.info("Starting RSS ingestion of {} feeds ({} mode)...", feeds.size(), mode);
+            long started = System.currentTimeMillis();
+            AiSummarizationService.TokenUsage usageBefore = aiSummarizationService.tokenUsage();
+
+            RunContext run = inTransaction("load", true, () -> {
+                Map<String, Category> categoriesBySlug = categoryRepository.findAll()
+                        .stream()
+                        .collect(Collectors.toMap(Category::getSlug, c -> c));
+
+                // ✅ Shared across feed workers for duplicate detection within same batch
+                List<String> recentHeadlines = new CopyOnWriteArrayList<>(newsRepository
+                        .findByActiveTrueOrderByPublishedAtDesc(PageRequest.of(0, 50))
+                        .stream()
+                        .map(News::getShortHeadline)
+                        .toList());
+
+                return new RunContext(
+                        List.copyOf(categoriesBySlug.keySet()), categoriesBySlug, recentHeadlines,
+                        ConcurrentHashMap.newKeySet(), ConcurrentHashMap.newKeySet(), new AtomicInteger());
+            });
+
+            List<FeedResult> results = switch (mode.toLowerCase()) {
+                case "sequential" -> ingestSequentially(feeds, run);
+                case "concurrent" -> ingestConcurrently(feeds, run);
+                case "batch" -> ingestBatched(feeds, run);
+                default -> ingestPipelined(feeds, run);
+            };
+
+            logSummary(results, System.currentTimeMillis() - started);
+            logTokenUsage(aiSummarizationService.tokenUsage().minus(usageBefore));
+            if (run.canonicalUrlHits().get() > 0) {
+                logger.info("URL canonicalization skipped {} items whose raw link looked new " +
+                        "(scrapes and AI calls avoided)", run.canonicalUrlHits().get());
+            }
+            logger.info("RSS ingestion completed.");
+            return results;
+        }
+
+        /* ============================================================
+           SEQUENTIAL — one feed after another (legacy behaviour)
+           ============================================================ */
+
+        private List<FeedResult> ingestSequentially(List<RssFeedSources.FeedGroup> feeds, RunContext run) {
+            List<FeedResult> results = new ArrayList<>();
+            for (RssFeedSources.FeedGroup feed : feeds) {
+                FeedProgress progress = new FeedProgress(feed);
+                try {
+                    ingestFeed(feed, run, progress);
+                    results.add(progress.finish(FeedStatus.OK));
+                } catch (Exception e) {
+                    logger.error("Feed {} failed: {}", feed.url(), e.getMessage());
+                    results.add(progress.finish(FeedStatus.FAILED));
+                }
+            }
+            return results;
+        }
+
+        /* ============================================================
+           CONCURRENT — each feed is its own task on a virtual thread.
+           At most maxParallelFeeds run at once; each gets feedTimeout
+           from the moment it starts, so one slow host can't hold up
+           the rest of the run.
+           ============================================================ */
+
+        private List<FeedResult> ingestConcurrently(List<RssFeedSources.FeedGroup> feeds, RunContext run) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            Semaphore permits = new Semaphore(Math.max(1, maxParallelFeeds));
+
+            List<Future<FeedResult>> futures = new ArrayList<>();
+            for (RssFeedSources.FeedGroup feed : feeds) {
+                futures.add(executor.submit(() -> runWithPermit(executor, permits, feed, run)));
+            }
+
+            List<FeedResult> results = new ArrayList<>();
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                } catch (ExecutionException e) {
+                    RssFeedSources.FeedGroup feed = feeds.get(i);
+                    logger.error("Feed {} failed: {}", feed.url(), e.getCause().getMessage());
+                    results.add(new FeedProgress(feed).finish(FeedStatus.FAILED));
+                }
+            }
+
+            // Don't close() — that would wait for timed-out workers still stuck on I/O
+            executor.shutdown();
+            return results;
+        }
+
+        private FeedResult runWithPermit(ExecutorService executor, Semaphore permits,
+                                         RssFeedSources.FeedGroup feed,
+                                         RunContext run) throws InterruptedException {
+            permits.acquire();
+            FeedProgress progress = new FeedProgress(feed);
+            Future<?> worker = executor.submit(() -> {
+                ingestFeed(feed, run, progress);
+                return null;
+            });
+            try {
+                worker.get(feedTimeoutSeconds, TimeUnit.SECONDS);
+                return progress.finish(FeedStatus.OK);
+            } catch (TimeoutException e) {
+                worker.cancel(true);
+                logger.warn("Feed {} exceeded {}s, cancelled", feed.url(), feedTimeoutSeconds);
+                return progress.finish(FeedStatus.TIMED_OUT);
+            } catch (ExecutionException e) {
+                logger.error("Feed {} failed: {}", feed.url(), e.getCause().getMessage());
+                return progress.finish(FeedStatus.FAILED);
+            } finally {
+                permits.release();
+            }
+        }
+
+        /* ============================================================
+           PIPELINE — fetch+parse → dedupe → scrape → summarize →
+           thumbnail → persist.
+           Each stage has its own concurrency and a bounded buffer in
+           front of it; when a stage falls behind, its buffer fills and
+           the stages before it stop pulling work instead of piling up
+           items in memory. Items from different feeds interleave, so a
+           slow feed never holds up another feed's articles.
+           ============================================================ */
+
+        private List<FeedResult> ingestPipelined(List<RssFeedSources.FeedGroup> feeds, RunContext run) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            Scheduler workers = Schedulers.fromExecutorService(executor, "ingestion-pipeline");
+            RunProgress progress = new RunProgress(feeds);
+
+            try {
+                fetchAndScrape(feeds, run, workers, progress)
+                        // summarize: near-duplicate check, Claude, category
+                        .transform(flux -> summarizeStage.buffer(flux, stageBufferSize))
+                        .flatMap(item -> summarizeStage.run(workers, () -> {
+                            if (pastDeadline(item.progress(), progress)) return null;
+                            News news = buildNews(item.article(), item.feed(), run, item.progress());
+                            return news == null ? null : new PendingNews(item.progress(), news);
+                        }), Math.max(1, summarizeConcurrency))
+                        .transform(flux -> thumbnailAndPersist(flux, workers))
+                        .blockLast();
+            } finally {
+                workers.dispose();
+                resetStages();
+            }
+            return finish(progress);
+        }
+
+        /* ============================================================
+           BATCH — same fetch, dedupe and scrape stages as the pipeline,
+           but every new article of the run goes to Claude as one
+           Message Batch (AiSummarizationService.analyzeBatch) instead of
+           one request each. Slower to the first saved article, much
+           cheaper for a large backlog.
+           ============================================================ */
+
+        private List<FeedResult> ingestBatched(List<RssFeedSources.FeedGroup> feeds, RunContext run) {
+            ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+            Scheduler workers = Schedulers.fromExecutorService(executor, "ingestion-batch");
+            RunProgress progress = new RunProgress(feeds);
 
-            // ✅ Mutable list for duplicate detection within same batch
-            List<String> recentHeadlines = new ArrayList<>(newsRepository
-                    .findByActiveTrueOrderByPublishedAtDesc(PageRequest.of(0, 50))
-                    .stream()
-                    .map(News::getShortHeadline)
-                    .toList());
+            try {
+                List<PipelineItem> scraped = fetchAndScrape(feeds, run, workers, progress)
+                        .collectList()
+                        .block();
 
-            for (RssFeedSources.RssFeed feed : RssFeedSources.FEEDS) {
-                List<RssFeedClient.RawArticle> articles =
-                        rssFeedClient.fetchFeed(feed.url(), extractSourceName(feed.url()));
+                // Near-duplicates are dropped before the batch, exactly as before a per-item call
+                List<PipelineItem> items = new ArrayList<>();
+                List<AiSummarizationService.ArticleInput> inputs = new ArrayList<>();
+                for (PipelineItem item : scraped) {
+                    if (pastDeadline(item.progress(), progress)) continue;
+                    if (!claimResolved(item.article(), run, item.progress())) continue;
+                    String content = contentFor(item.article(), item.progress());
+                    if (content == null) continue;
+                    items.add(item);
+                    inputs.add(new AiSummarizationService.ArticleInput(item.article().title(), content));
+                }
+
+                List<AiSummarizationService.AiResult> results;
+                try {
+                    results = summarizeStage.run(workers,
+                            () -> aiSummarizationService.analyzeBatch(
+                                    inputs, run.categorySlugs(), List.copyOf(run.recentHeadlines())),
+                            0).block();
+                } catch (RuntimeException e) {
+                    // None of them will be saved this run
+                    for (int i = 0; i < items.size(); i++) {
+                        nearDuplicateIndex.release(items.get(i).article().title(), inputs.get(i).content());
+                    }
+                    throw e;
+                }
+
+                List<PendingNews> pending = new ArrayList<>();
+                for (int i = 0; i < items.size(); i++) {
+                    PipelineItem item = items.get(i);
+                    if (results.get(i) == null) {
+                        unavailable(item.article(), inputs.get(i).content(), item.progress());
+                        continue;
+                    }
+                    News news = newsFrom(item.article(), inputs.get(i).content(), item.feed(), run,
+                            item.progress(), results.get(i));
+                    if (news != null) pending.add(new PendingNews(item.progress(), news));
+                }
+
+                Flux.fromIterable(pending)
+                        .transform(flux -> thumbnailAndPersist(flux, workers))
+                        .blockLast();
+            } finally {
+                workers.dispose();
+                resetStages();
+            }
+            return finish(progress);
+        }
+
+        // fetch + parse → dedupe → scrape, shared by pipeline and batch mode
+        private Flux<PipelineItem> fetchAndScrape(List<RssFeedSources.FeedGroup> feeds,
+                                                  RunContext run,
+                                                  Scheduler workers,
+                                                  RunProgress progress) {
+            return Flux.fromIterable(feeds)
+                    // fetch + parse: stops at the checkpoint; with app.rss.parser=stax the rest isn't even downloaded
+                    .transform(flux -> fetchStage.buffer(flux, stageBufferSize))
+                    .flatMap(feed -> fetchStage.run(workers, () -> {
+                                FeedProgress feedProgress = progress.byFeed().get(feed);
+                                feedProgress.start();
+                                RssFeedClient.FeedFetch fetch = rssFeedClient.fetchFeed(
+                                        feed.url(), extractSourceName(feed.url()),
+                                        feedCheckpointService.stopAt(feed.url()));
+                                feedProgress.fetched.set(fetch.articles().size());
+                                progress.fetched().put(feed, fetch);
+                                return new FetchedFeed(feed, feedProgress, fetch.articles());
+                            })
+                            .timeout(Duration.ofSeconds(feedTimeoutSeconds))
+                            .onErrorResume(e -> {
+                                markFailed(progress.failures(), feed, e);
+                                return Mono.empty();
+                            }), Math.max(1, maxParallelFeeds))
+
+                    // dedupe: one bulk lookup per feed
+                    .transform(flux -> dedupeStage.buffer(flux, stageBufferSize))
+                    .concatMap(batch -> dedupeStage.run(workers, () -> pastDeadline(batch.progress(), progress)
+                                    ? List.<PipelineItem>of()
+                                    : claimNew(batch.articles(), run, batch.progress())
+                                            .stream()
+                                            .map(raw -> new PipelineItem(batch.feed(), batch.progress(), raw))
+                                            .toList())
+                            .onErrorResume(e -> {
+                                markFailed(progress.failures(), batch.feed(), e);
+                                return Mono.empty();
+                            }))
+                    .flatMapIterable(items -> items)
+
+                    // scrape (archive first)
+                    .transform(flux -> scrapeStage.buffer(flux, stageBufferSize))
+                    .flatMap(item -> scrapeStage.run(workers, () -> {
+                        if (pastDeadline(item.progress(), progress)) return null;
+                        RssFeedClient.RawArticle restored = restoreFromArchive(item.article());
+                        if (restored != null) return item.with(restored);
+                        RssFeedClient.RawArticle scraped = articleScraper.scrape(item.article());
+                        articleArchive.append(sourceUrlCanonicalizer.canonicalize(scraped.sourceUrl()), scraped);
+                        return item.with(scraped);
+                    }), Math.max(1, scrapeConcurrency));
+        }
+
+        // thumbnail → persist, shared by pipeline and batch mode
+        private Flux<Integer> thumbnailAndPersist(Flux<PendingNews> upstream, Scheduler workers) {
+            return upstream
+                    // thumbnail + placeholder for the card image
+                    .transform(flux -> thumbnailStage.buffer(flux, stageBufferSize))
+                    .flatMap(pending -> thumbnailStage.run(workers, () -> {
+                        attachThumbnail(pending.news());
+                        return pending;
+                    }), Math.max(1, thumbnailConcurrency))
+
+                    // persist: batches across feeds, flushed when full or after persistFlushMs
+                    .transform(flux -> persistStage.buffer(flux, stageBufferSize))
+                    .bufferTimeout(Math.max(1, persistBatchSize), Duration.ofMillis(persistFlushMs), true)
+                    .concatMap(batch -> persistStage.run(workers, () -> {
+                        persistPending(batch);
+                        return batch.size();
+                    }, batch.size()));
+        }
+
+        private void resetStages() {
+            Stream.of(fetchStage, dedupeStage, scrapeStage, summarizeStage, thumbnailStage, persistStage)
+                    .forEach(PipelineStage::reset);
+        }
+
+        // Per-feed bookkeeping for pipeline and batch runs
+        private record RunProgress(Map<RssFeedSources.FeedGroup, FeedProgress> byFeed,
+                                   Map<RssFeedSources.FeedGroup, FeedStatus> failures,
+                                   Map<RssFeedSources.FeedGroup, RssFeedClient.FeedFetch> fetched) {
+
+            private RunProgress(List<RssFeedSources.FeedGroup> feeds) {
+                this(new LinkedHashMap<>(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+                feeds.forEach(feed -> byFeed.put(feed, new FeedProgress(feed)));
+            }
+        }
 
-                int saved = 0;
-                for (RssFeedClient.RawArticle raw : articles) {
+        private List<FeedResult> finish(RunProgress run) {
+            List<FeedResult> results = new ArrayList<>();
+            for (Map.Entry<RssFeedSources.FeedGroup, FeedProgress> entry : run.byFeed().entrySet()) {
+                RssFeedSources.FeedGroup feed = entry.getKey();
+                FeedProgress progress = entry.getValue();
+                FeedStatus status = run.failures().getOrDefault(feed, FeedStatus.OK);
+
+                // Leave the mark and validators where they were if anything failed, so those items are retried
+                if (status == FeedStatus.OK && progress.failed.get() == 0 && run.fetched().containsKey(feed)) {
+                    RssFeedClient.FeedFetch fetch = run.fetched().get(feed);
+                    feedCheckpointService.advance(feed.url(), fetch.articles());
+                    rssFeedClient.commit(feed.url(), fetch);
+                }
+                logger.info("Saved {} articles from feed: {}", progress.saved.get(), feed.url());
+                results.add(progress.finish(status));
+            }
+            return results;
+        }
+
+        /**
+         * Whether the item's feed has used up its feedTimeoutSeconds, counted
+         * from when the feed entered the fetch stage. The fetch itself is cut
+         * off by timeout(); the later stages check here before starting an
+         * item, so a feed's deadline covers the whole pipeline. An item past
+         * it is dropped and its feed marked timed out, which keeps the
+         * checkpoint put so the next run retries it. Items already summarized
+         * are still saved: Claude's answer has been paid for.
+         */
+        private boolean pastDeadline(FeedProgress feedProgress, RunProgress run) {
+            if (feedProgress.elapsedMs() <= TimeUnit.SECONDS.toMillis(feedTimeoutSeconds)) return false;
+            if (run.failures().putIfAbsent(feedProgress.feed, FeedStatus.TIMED_OUT) == null) {
+                logger.warn("Feed {} exceeded {}s, dropping the rest of its items", feedProgress.feed.url(),
+                        feedTimeoutSeconds);
+            }
+            return true;
+        }
+
+        private void markFailed(Map<RssFeedSources.FeedGroup, FeedStatus> failures,
+                                RssFeedSources.FeedGroup feed, Throwable e) {
+            if (e instanceof TimeoutException) {
+                logger.warn("Feed {} exceeded {}s, skipped", feed.url(), feedTimeoutSeconds);
+                failures.put(feed, FeedStatus.TIMED_OUT);
+            } else {
+                logger.error("Feed {} failed: {}", feed.url(), e.getMessage());
+                failures.put(feed, FeedStatus.FAILED);
+            }
+        }
+
+        // Like persist(), but a batch can hold items from several feeds
+        private void persistPending(List<PendingNews> batch) {
+            List<News> rows = batch.stream().map(PendingNews::news).toList();
+            try {
+                inTransaction("persist", false, () -> newsRepository.saveAll(rows));
+                rows.forEach(n -> sourceUrlDeduplicator.record(n.getCanonicalUrl(), n.getSourceUrl()));
+                batch.forEach(p -> p.progress().saved.incrementAndGet());
+            } catch (Exception e) {
+                logger.error("Failed to save batch of {} articles: {}", rows.size(), e.getMessage());
+                rows.forEach(this::releaseClaim);
+                batch.forEach(p -> p.progress().failed.incrementAndGet());
+            }
+        }
+
+        private record FetchedFeed(RssFeedSources.FeedGroup feed,
+                                   FeedProgress progress,
+                                   List<RssFeedClient.RawArticle> articles) {}
+
+        private record PipelineItem(RssFeedSources.FeedGroup feed,
+                                    FeedProgress progress,
+                                    RssFeedClient.RawArticle article) {
+            private PipelineItem with(RssFeedClient.RawArticle updated) {
+                return new PipelineItem(feed, progress, updated);
+            }
+        }
+
+        private record PendingNews(FeedProgress progress, News news) {}
+
+        /**
+         * Bounded buffer plus bookkeeping for one pipeline stage. Exposes
+         * pocketnews.pipeline.queued (items waiting in the buffer),
+         * pocketnews.pipeline.active (items being worked on) and the
+         * pocketnews.pipeline.stage timer, whose count is the stage's
+         * throughput; all tagged by stage.
+         */
+        private static final class PipelineStage {
+            private final AtomicInteger queued = new AtomicInteger();
+            private final AtomicInteger active = new AtomicInteger();
+            private final Timer timer;
+
+            private PipelineStage(String name, MeterRegistry registry) {
+                Gauge.builder("pocketnews.pipeline.queued", queued, AtomicInteger::get)
+                        .description("Items waiting in front of an ingestion stage")
+                        .tag("stage", name)
+                        .register(registry);
+                Gauge.builder("pocketnews.pipeline.active", active, AtomicInteger::get)
+                        .description("Items an ingestion stage is working on")
+                        .tag("stage", name)
+                        .register(registry);
+                this.timer = Timer.builder("pocketnews.pipeline.stage")
+                        .description("Time per item in an ingestion stage")
+                        .tag("stage", name)
+                        .register(registry);
+            }
+
+            private <T> Flux<T> buffer(Flux<T> upstream, int size) {
+                return upstream
+                        .doOnNext(item -> queued.incrementAndGet())
+                        .publishOn(Schedulers.parallel(), Math.max(1, size));
+            }
+
+            private <T> Mono<T> run(Scheduler scheduler, Callable<T> work) {
+                return run(scheduler, work, 1);
+            }
+
+            // items: how many buffered items this call takes (persist consumes a whole batch)
+            private <T> Mono<T> run(Scheduler scheduler, Callable<T> work, int items) {
+                return Mono.fromCallable(() -> {
+                    queued.addAndGet(-items);
+                    active.incrementAndGet();
+                    long started = System.nanoTime();
                     try {
-                        if (newsRepository.existsBySourceUrl(raw.sourceUrl())) continue;
-
-                        String content = raw.fullContent() != null && !raw.fullContent().isBlank()
-                                ? raw.fullContent()
-                                : (raw.description() != null ? raw.description() : raw.title());
-
-// ✅ Clean content before sending to Claude
-                        content = cleanContent(content);
-
-                        AiSummarizationService.AiResult result =
-                                aiSummarizationService.analyzeArticle(
-                                        raw.title(), content,
-                                        categorySlugs, recentHeadlines
-                                );
-
-                        if (result.isDuplicate()) {
-                            logger.info("Skipping duplicate: {}", raw.title());
-                            continue;
-                        }
-
-                        Category category = categoryRepository
-                                .findBySlug(result.assignedCategory())
-                                .orElse(categoryRepository.findBySlug("top-stories").orElseThrow());
-
-                        News news = new News();
-                        news.setCategory(category);
-                        news.setShortHeadline(result.shortHeadline());
-                        news.setShortContent(result.shortContent());
-                        news.setImageUrl(raw.imageUrl());
-                        news.setSource(raw.sourceName());
-                        news.setSourceUrl(raw.sourceUrl());   // ✅ full article link
-                        news.setPublishedAt(LocalDateTime.now(ZoneOffset.UTC));
-                        news.setExpiresAt(LocalDateTime.now(ZoneOffset.UTC).plusDays(retentionDays));
-                        news.setActive(true);
-
-                        newsRepository.save(news);
-                        recentHeadlines.add(result.shortHeadline());
-                        saved++;
-
-                    } catch (Exception e) {
-                        logger.error("Failed to process article '{}': {}", raw.title(), e.getMessage());
+                        return work.call();
+                    } finally {
+                        active.decrementAndGet();
+                        timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
                     }
+                }).subscribeOn(scheduler);
+            }
+
+            private void reset() {
+                queued.set(0);
+                active.set(0);
+            }
+        }
+
+        /* ============================================================
+           SINGLE FEED — fetch once, analyze and save every new item.
+           A URL listed under several categories is still fetched once;
+           its category hints are used when Claude's pick is unusable.
+           ============================================================ */
+
+        private void ingestFeed(RssFeedSources.FeedGroup feed,
+                                RunContext run,
+                                FeedProgress progress) {
+            // Parser stops at the feed's checkpoint, so only items newer than last run come back
+            RssFeedClient.FeedFetch fetch = rssFeedClient.fetchFeed(
+                    feed.url(), extractSourceName(feed.url()), feedCheckpointService.stopAt(feed.url()));
+            List<RssFeedClient.RawArticle> articles = fetch.articles();
+            progress.fetched.set(articles.size());
+
+            List<RssFeedClient.RawArticle> fresh = claimNew(articles, run, progress);
+
+            // Only new items get scraped, and only if the archive doesn't have them already
+            List<RssFeedClient.RawArticle> scraped = scrapeOrRestore(fresh);
+
+            List<News> pending = new ArrayList<>();
+            try {
+                for (RssFeedClient.RawArticle raw : scraped) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        logger.warn("Feed {} interrupted, stopping", feed.url());
+                        return;
+                    }
+                    News news = buildNews(raw, feed, run, progress);
+                    if (news == null) continue;
+                    attachThumbnail(news);
+
+                    pending.add(news);
+                    if (pending.size() >= persistBatchSize) persist(pending, progress);
                 }
-                logger.info("Saved {} articles from feed: {}", saved, feed.url());
+            } finally {
+                // Whatever was summarized gets written, even if the feed was cut short
+                persist(pending, progress);
             }
-            logger.info("RSS ingestion completed.");
+            logger.info("Saved {} articles from feed: {}", progress.saved.get(), feed.url());
+
+            // Leave the mark and validators where they were if anything failed, so those items are retried
+            if (progress.failed.get() == 0) {
+                feedCheckpointService.advance(feed.url(), articles);
+                rssFeedClient.commit(feed.url(), fetch);
+            }
+        }
+
+        /**
+         * Drops items already stored or taken by another feed this run.
+         * One bulk check per feed instead of existsBySourceUrl per item, on
+         * canonical URLs.
+         */
+        private List<RssFeedClient.RawArticle> claimNew(List<RssFeedClient.RawArticle> articles,
+                                                        RunContext run,
+                                                        FeedProgress progress) {
+            List<String> canonicalUrls = articles.stream()
+                    .map(raw -> sourceUrlCanonicalizer.canonicalize(raw.sourceUrl()))
+                    .toList();
+            Set<String> newUrls = sourceUrlDeduplicator.findNew(canonicalUrls);
+
+            // Also guards against another feed worker taking the same URL this run
+            List<RssFeedClient.RawArticle> fresh = new ArrayList<>();
+            List<String> rewrittenLinks = new ArrayList<>();
+            for (int i = 0; i < articles.size(); i++) {
+                RssFeedClient.RawArticle raw = articles.get(i);
+                String canonical = canonicalUrls.get(i);
+                if (newUrls.contains(canonical) && run.claimedUrls().add(canonical)) {
+                    run.claimedRawUrls().add(raw.sourceUrl());
+                    fresh.add(raw);
+                } else {
+                    progress.skipped.incrementAndGet();
+                    if (canonical != null && !canonical.equals(raw.sourceUrl())) rewrittenLinks.add(raw.sourceUrl());
+                }
+            }
+            countCanonicalUrlHits(rewrittenLinks, run);
+            return fresh;
+        }
+
+        /**
+         * Where a redirect link (feedburner/feedproxy) really points is only
+         * known once ArticleScraper has followed it. Drops the item, before it
+         * reaches Claude, when that page is already stored or claimed this run.
+         */
+        private boolean claimResolved(RssFeedClient.RawArticle raw, RunContext run, FeedProgress progress) {
+            String resolved = sourceUrlCanonicalizer.canonicalize(raw.sourceUrl(), raw.resolvedUrl());
+            if (resolved == null || resolved.equals(sourceUrlCanonicalizer.canonicalize(raw.sourceUrl()))) return true;
+            if (sourceUrlDeduplicator.findNew(List.of(resolved)).contains(resolved) && run.claimedUrls().add(resolved)) {
+                return true;
+            }
+            logger.info("Skipping {}: redirects to a story we already have ({})", raw.sourceUrl(), resolved);
+            progress.skipped.incrementAndGet();
+            run.canonicalUrlHits().incrementAndGet();
+            return false;
+        }
+
+        // Skipped items the raw link alone would have let through: neither stored nor claimed this run
+        private void countCanonicalUrlHits(List<String> rawLinks, RunContext run) {
+            if (rawLinks.isEmpty()) return;
+            Set<String> stored = new HashSet<>(newsRepository.findExistingSourceUrls(rawLinks));
+            for (String link : rawLinks) {
+                if (!stored.contains(link) && !run.claimedRawUrls().contains(link)) {
+                    run.canonicalUrlHits().incrementAndGet();
+                }
+            }
+        }
+
+        /**
+         * Fills in fullContent from the article archive where an earlier run
+         * already scraped the item (e.g. it failed to summarize and is being
+         * retried); everything else is scraped and archived. Keeps input order.
+         */
+        private List<RssFeedClient.RawArticle> scrapeOrRestore(List<RssFeedClient.RawArticle> fresh) {
+            List<RssFeedClient.RawArticle> result = new ArrayList<>(fresh);
+            List<Integer> missing = new ArrayList<>();
+            for (int i = 0; i < fresh.size(); i++) {
+                RssFeedClient.RawArticle restored = restoreFromArchive(fresh.get(i));
+                if (restored != null) {
+                    result.set(i, restored);
+                } else {
+                    missing.add(i);
+                }
+            }
+            if (missing.size() < fresh.size()) {
+                logger.debug("Article archive supplied {} of {} items, scraping the rest",
+                        fresh.size() - missing.size(), fresh.size());
+            }
+
+            List<RssFeedClient.RawArticle> toScrape = missing.stream().map(fresh::get).toList();
+            List<RssFeedClient.RawArticle> scraped = articleScraper.scrapeAll(toScrape);
+            for (int i = 0; i < scraped.size(); i++) {
+                RssFeedClient.RawArticle article = scraped.get(i);
+                articleArchive.append(sourceUrlCanonicalizer.canonicalize(article.sourceUrl()), article);
+                result.set(missing.get(i), article);
+            }
+            return result;
+        }
+
+        // The item with its archived fullContent, or null if it has to be scraped
+        private RssFeedClient.RawArticle restoreFromArchive(RssFeedClient.RawArticle raw) {
+            return articleArchive.find(sourceUrlCanonicalizer.canonicalize(raw.sourceUrl()))
+                    .map(archived -> archived.article().fullContent())
+                    .map(raw::withFullContent)
+                    .orElse(null);
+        }
+
+        /**
+         * Summarizes one item and returns the unsaved News, or null when it's
+         * a duplicate or failed.
+         */
+        private News buildNews(RssFeedClient.RawArticle raw,
+                               RssFeedSources.FeedGroup feed,
+                               RunContext run,
+                               FeedProgress progress) {
+            String content = null;
+            try {
+                if (!claimResolved(raw, run, progress)) return null;
+                content = contentFor(raw, progress);
+                if (content == null) return null;
+
+                // Waits behind fresher and higher-priority items when Claude is the bottleneck
+                String cleaned = content;
+                Optional<AiSummarizationService.AiResult> analysis = summarizationQueue.submit(
+                        feed.categoryHints(), raw.publishedAt(),
+                        () -> aiSummarizationService.analyzeArticle(
+                                raw.title(), cleaned,
+                                run.categorySlugs(), run.recentHeadlines()
+                        ));
+                if (analysis.isEmpty()) {
+                    // Waited past the deadline behind a backlog: like an outage, counted as failed
+                    // so the checkpoint stays put and the next run picks it up
+                    logger.debug("Summarization backlog, leaving '{}' for the next run", raw.title());
+                    nearDuplicateIndex.release(raw.title(), content);
+                    progress.failed.incrementAndGet();
+                    return null;
+                }
+                return newsFrom(raw, content, feed, run, progress, analysis.get());
+
+            } catch (AiSummarizationService.ClaudeUnavailableException e) {
+                unavailable(raw, content, progress);
+                return null;
+            } catch (Exception e) {
+                logger.error("Failed to process article '{}': {}", raw.title(), e.getMessage());
+                if (content != null) nearDuplicateIndex.release(raw.title(), content);
+                progress.failed.incrementAndGet();
+                return null;
+            }
+        }
+
+        // Not the article's fault: counted as failed so the checkpoint stays put and the next run retries it
+        private void unavailable(RssFeedClient.RawArticle raw, String content, FeedProgress progress) {
+            logger.debug("Claude unavailable, leaving '{}' for the next run", raw.title());
+            if (content != null) nearDuplicateIndex.release(raw.title(), content);
+            progress.failed.incrementAndGet();
+        }
+
+        /**
+         * The cleaned text to send to Claude, or null (counted as skipped)
+         * when it's an obvious repeat of a story we already have.
+         */
+        private String contentFor(RssFeedClient.RawArticle raw, FeedProgress progress) {
+            String content = raw.fullContent() != null && !raw.fullContent().isBlank()
+                    ? raw.fullContent()
+                    : (raw.description() != null ? raw.description() : raw.title());
+
+            // ✅ Clean content before sending to Claude
+            content = cleanContent(content);
+
+            // Obvious repeats of a story we already have never reach Claude
+            if (!nearDuplicateIndex.tryClaim(raw.title(), content)) {
+                logger.info("Skipping near-duplicate: {}", raw.title());
+                progress.skipped.incrementAndGet();
+                return null;
+            }
+            return content;
+        }
+
+        // The unsaved News for Claude's analysis, or null if Claude called it a duplicate
+        private News newsFrom(RssFeedClient.RawArticle raw,
+                              String content,
+                              RssFeedSources.FeedGroup feed,
+                              RunContext run,
+                              FeedProgress progress,
+                              AiSummarizationService.AiResult result) {
+            if (result.isDuplicate()) {
+                logger.info("Skipping duplicate: {}", raw.title());
+                progress.skipped.incrementAndGet();
+                return null;
+            }
+
+            Category category = resolveCategory(result.assignedCategory(), feed, run);
+
+            News news = new News();
+            news.setCategory(category);
+            news.setShortHeadline(result.shortHeadline());
+            news.setShortContent(result.shortContent());
+            news.setImageUrl(raw.imageUrl());
+            news.setSource(raw.sourceName());
+            news.setSourceUrl(raw.sourceUrl());   // ✅ full article link
+            news.setCanonicalUrl(sourceUrlCanonicalizer.canonicalize(raw.sourceUrl(), raw.resolvedUrl()));
+            long simHash = nearDuplicateIndex.fingerprint(raw.title(), content);
+            news.setSimHash(simHash != 0 ? simHash : null);
+            news.setPublishedAt(LocalDateTime.now(ZoneOffset.UTC));
+            news.setExpiresAt(LocalDateTime.now(ZoneOffset.UTC).plusDays(retentionDays));
+            news.setActive(true);
+
+            // Visible to later items right away, before the batch is written
+            run.recentHeadlines().add(result.shortHeadline());
+            return news;
+        }
+
+        // A failed item is retried next run; its claim would make it look like a repeat of itself
+        private void releaseClaim(News news) {
+            if (news.getSimHash() != null) nearDuplicateIndex.release(news.getSimHash());
+        }
+
+        // Best effort: an article without a thumbnail still shows imageUrl
+        private void attachThumbnail(News news) {
+            thumbnailService.generate(news.getImageUrl()).ifPresent(thumbnail -> {
+                news.setThumbnailHash(thumbnail.hash());
+                news.setBlurHash(thumbnail.blurHash());
+            });
+        }
+
+        /**
+         * Writes pending rows with one saveAll. Sequence IDs are pre-allocated,
+         * so Hibernate sends them as JDBC batches of hibernate.jdbc.batch_size,
+         * which pgjdbc rewrites into multi-row INSERTs.
+         */
+        private void persist(List<News> pending, FeedProgress progress) {
+            if (pending.isEmpty()) return;
+            try {
+                inTransaction("persist", false, () -> newsRepository.saveAll(pending));
+                pending.forEach(n -> sourceUrlDeduplicator.record(n.getCanonicalUrl(), n.getSourceUrl()));
+                progress.saved.addAndGet(pending.size());
+            } catch (Exception e) {
+                logger.error("Failed to save batch of {} articles: {}", pending.size(), e.getMessage());
+                pending.forEach(this::releaseClaim);
+                progress.failed.addAndGet(pending.size());
+            } finally {
+                pending.clear();
+            }
+        }
+
+        /**
+         * Runs a short unit of DB work in its own transaction and records how long
+         * it held a pooled connection (metric pocketnews.ingestion.connection.hold,
+         * tagged by operation).
+         */
+        private <T> T inTransaction(String operation, boolean readOnly, Supplier<T> work) {
+            TransactionTemplate template = readOnly ? readOnlyTransactionTemplate : transactionTemplate;
+            return Timer.builder("pocketnews.ingestion.connection.hold")
+                    .description("Time ingestion holds a DB connection per transaction")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .record(() -> template.execute(status -> work.get()));
+        }
+
+        /**
+         * Claude's category if it's a real slug, otherwise the first of the
+         * feed's own category hints that exists, otherwise top-stories.
+         */
+        private Category resolveCategory(String assigned, RssFeedSources.FeedGroup feed, RunContext run) {
+            Category category = run.categoriesBySlug().get(assigned);
+            if (category != null) return category;
+
+            for (String hint : feed.categoryHints()) {
+                category = run.categoriesBySlug().get(hint);
+                if (category != null) return category;
+            }
+            Category topStories = run.categoriesBySlug().get("top-stories");
+            if (topStories == null) throw new IllegalStateException("Category 'top-stories' is missing");
+            return topStories;
+        }
+
+        /* ============================================================
+           RUN SUMMARY
+           ============================================================ */
+
+        // Per-run state shared by every feed worker
+        private record RunContext(
+                List<String> categorySlugs,
+                Map<String, Category> categoriesBySlug,
+                List<String> recentHeadlines,
+                Set<String> claimedUrls,
+                Set<String> claimedRawUrls,
+                AtomicInteger canonicalUrlHits
+        ) {}
+
+        public enum FeedStatus { OK, FAILED, TIMED_OUT }
+
+        public record FeedResult(
+                String feedUrl,
+                List<String> categoryHints,
+                FeedStatus status,
+                int fetched,
+                int saved,
+                int skipped,
+                int failed,
+                long durationMs
+        ) {}
+
+        /**
+         * Counters a feed worker updates as it goes, so a feed that times out
+         * still reports how far it got.
+         */
+        private static final class FeedProgress {
+            private final RssFeedSources.FeedGroup feed;
+            private volatile long startedAt = System.currentTimeMillis();
+            private final AtomicInteger fetched = new AtomicInteger();
+            private final AtomicInteger saved = new AtomicInteger();
+            private final AtomicInteger skipped = new AtomicInteger();
+            private final AtomicInteger failed = new AtomicInteger();
+
+            private FeedProgress(RssFeedSources.FeedGroup feed) {
+                this.feed = feed;
+            }
+
+            // Pipeline feeds wait in the fetch buffer first; their clock starts when the fetch does
+            private void start() {
+                startedAt = System.currentTimeMillis();
+            }
+
+            private long elapsedMs() {
+                return System.currentTimeMillis() - startedAt;
+            }
+
+            private FeedResult finish(FeedStatus status) {
+                return new FeedResult(feed.url(), feed.categoryHints(), status, fetched.get(), saved.get(),
+                        skipped.get(), failed.get(), elapsedMs());
+            }
+        }
+
+        private void logSummary(List<FeedResult> results, long totalMs) {
+            int saved = 0;
+            for (FeedResult r : results) {
+                saved += r.saved();
+                logger.info("  {} {} [{}] fetched={} saved={} skipped={} failed={} in {}ms",
+                        r.feedUrl(), r.categoryHints(), r.status(), r.fetched(), r.saved(),
+                        r.skipped(), r.failed(), r.durationMs());
+            }
+            logger.info("Ingestion summary: {} feeds, {} articles saved in {}ms",
+                    results.size(), saved, totalMs);
+        }
+
+        // Prompt caching at work: how much of this run's Claude input was read from cache
+        private void logTokenUsage(AiSummarizationService.TokenUsage usage) {
+            if (usage.totalInput() == 0) return;
+            logger.info("Claude input tokens: {} cached, {} written to cache, {} uncached ({}% from cache); {} output",
+                    usage.cacheRead(), usage.cacheWrite(), usage.uncachedInput(),
+                    100 * usage.cacheRead() / usage.totalInput(), usage.output());
         }
 
         @Transactional
@@ -122,6 +992,9 @@ import java.util.Set;
             LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
             long deleted = newsRepository.deleteByExpiresAtBefore(now);
             logger.info("Deleted {} expired news articles.", deleted);
+            if (deleted > 0) sourceUrlDeduplicator.rebuild();
+            nearDuplicateIndex.evictOlderThan(
+                    now.minusDays(retentionDays).toInstant(ZoneOffset.UTC).toEpochMilli());
         }
 
         private String extractSourceName(String url) {
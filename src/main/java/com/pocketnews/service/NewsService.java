@@ -14,11 +14,13 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @Transactional
@@ -28,16 +30,19 @@ public class NewsService {
     private final CategoryRepository categoryRepository;
     private final CategoryPreferenceService preferenceService;
     private final AiSummarizationService aiSummarizationService;
+    private final ThumbnailService thumbnailService;
 
     public NewsService(
             NewsRepository newsRepository,
             CategoryRepository categoryRepository,
             CategoryPreferenceService preferenceService,
-            AiSummarizationService aiSummarizationService) {
+            AiSummarizationService aiSummarizationService,
+            ThumbnailService thumbnailService) {
         this.newsRepository = newsRepository;
         this.categoryRepository = categoryRepository;
         this.preferenceService = preferenceService;
         this.aiSummarizationService = aiSummarizationService;
+        this.thumbnailService = thumbnailService;
     }
 
     public Page<NewsDTO> getFeed(String deviceId, Pageable pageable, LocalDateTime after) {
@@ -125,7 +130,12 @@ public class NewsService {
         return mapToDTO(news);
     }
 
-    public NewsDTO createNews(NewsCreateRequest request) {
+    /**
+     * Summarizes without holding the request thread while Claude answers;
+     * the save runs on boundedElastic once the summary arrives, never on
+     * the Netty event loop.
+     */
+    public CompletableFuture<NewsDTO> createNews(NewsCreateRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found"));
 
@@ -133,19 +143,20 @@ public class NewsService {
                 ? request.getContent()
                 : (request.getDescription() != null ? request.getDescription() : request.getContent());
 
-        AiSummarizationService.SummaryResult summary =
-                aiSummarizationService.summarize(request.getTitle(), rawContent);
-
-        News news = new News();
-        news.setCategory(category);
-        news.setShortHeadline(summary.shortHeadline());
-        news.setShortContent(summary.shortContent());
-        news.setImageUrl(request.getImageUrl());
-        news.setSource(request.getSource() != null ? request.getSource() : request.getSourceName());
-        news.setPublishedAt(LocalDateTime.now(ZoneOffset.UTC));
-
-        news = newsRepository.save(news);
-        return mapToDTO(news);
+        return aiSummarizationService.summarizeAsync(request.getTitle(), rawContent)
+                .publishOn(Schedulers.boundedElastic())
+                .map(summary -> {
+                    News news = new News();
+                    news.setCategory(category);
+                    news.setShortHeadline(summary.shortHeadline());
+                    news.setShortContent(summary.shortContent());
+                    news.setImageUrl(request.getImageUrl());
+                    news.setSource(request.getSource() != null ? request.getSource() : request.getSourceName());
+                    news.setPublishedAt(LocalDateTime.now(ZoneOffset.UTC));
+
+                    return mapToDTO(newsRepository.save(news));
+                })
+                .toFuture();
     }
 
     private NewsDTO mapToDTO(News news) {
@@ -156,6 +167,8 @@ public class NewsService {
                 news.getShortHeadline(),
                 news.getShortContent(),
                 news.getImageUrl(),
+                thumbnailService.urlOf(news.getThumbnailHash()),
+                news.getBlurHash(),
                 news.getSource(),
                 news.getSourceUrl(),
                 news.getViewCount(),
@@ -0,0 +1,142 @@
+package com.pocketnews.service;
+
+import com.pocketnews.entity.Category;
+import com.pocketnews.entity.News;
+import com.pocketnews.repository.CategoryRepository;
+import com.pocketnews.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * News insert throughput benchmark, active only with the "persist-benchmark"
+ * profile.
+ *
+ * Writes app.benchmark.persist.rows synthetic articles two ways and logs
+ * rows per second for each:
+ *
+ *   - row by row: one save() per article in its own transaction, as
+ *     ingestion did before persist batching
+ *   - batched: saveAll in chunks of app.ingestion.persist-batch-size, one
+ *     transaction per chunk, as ingestion does now
+ *
+ * Rows are deleted again after each round. Point the datasource at a
+ * scratch database; run once more with reWriteBatchedInserts=false to see
+ * how much of the gain is pgjdbc's multi-row INSERT rewriting.
+ */
+@Component
+@Profile("persist-benchmark")
+public class PersistBenchmark implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersistBenchmark.class);
+
+    private final NewsRepository newsRepository;
+    private final CategoryRepository categoryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ConfigurableApplicationContext context;
+
+    @Value("${app.benchmark.persist.rows:2000}")
+    private int rows;
+
+    @Value("${app.benchmark.persist.rounds:3}")
+    private int rounds;
+
+    @Value("${app.ingestion.persist-batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.benchmark.exit:true}")
+    private boolean exitWhenDone;
+
+    public PersistBenchmark(NewsRepository newsRepository,
+                            CategoryRepository categoryRepository,
+                            PlatformTransactionManager transactionManager,
+                            ConfigurableApplicationContext context) {
+        this.newsRepository = newsRepository;
+        this.categoryRepository = categoryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.context = context;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Category category = categoryRepository.findBySlug("top-stories")
+                .or(() -> categoryRepository.findAll().stream().findFirst())
+                .orElseThrow(() -> new IllegalStateException("No categories; seed the database first"));
+        logger.info("=== PERSIST BENCHMARK: {} rows × {} rounds, batch size {} ===", rows, rounds, batchSize);
+
+        // The first round of each mode warms up Hibernate, the pool and the sequence
+        double rowByRow = 0, batched = 0;
+        for (int round = 0; round <= rounds; round++) {
+            double single = measure(category, round, false);
+            double chunked = measure(category, round, true);
+            if (round > 0) {
+                rowByRow += single;
+                batched += chunked;
+            }
+        }
+        rowByRow /= rounds;
+        batched /= rounds;
+
+        logger.info("Row by row: {} rows/s", String.format("%.0f", rowByRow));
+        logger.info("Batched:    {} rows/s ({}× faster)",
+                String.format("%.0f", batched), String.format("%.1f", batched / rowByRow));
+
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    // Rows per second for one round; the rows are deleted afterwards
+    private double measure(Category category, int round, boolean batched) {
+        List<News> news = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            news.add(syntheticNews(category, (batched ? "batched/" : "single/") + round + "/" + i));
+        }
+
+        long started = System.nanoTime();
+        if (batched) {
+            for (int from = 0; from < news.size(); from += batchSize) {
+                List<News> chunk = news.subList(from, Math.min(news.size(), from + batchSize));
+                transactionTemplate.executeWithoutResult(status -> newsRepository.saveAll(chunk));
+            }
+        } else {
+            for (News row : news) {
+                transactionTemplate.executeWithoutResult(status -> newsRepository.save(row));
+            }
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        transactionTemplate.executeWithoutResult(status -> newsRepository.deleteAllInBatch(news));
+        return rows / seconds;
+    }
+
+    private News syntheticNews(Category category, String key) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        News news = new News();
+        news.setShortHeadline("Benchmark headline " + key);
+        // About as long as a real 60-word summary
+        news.setShortContent(key + " " + "summary ".repeat(60).trim() + ".");
+        news.setSourceUrl("https://benchmark.invalid/" + key);
+        news.setCanonicalUrl("https://benchmark.invalid/" + key);
+        news.setSource("Benchmark");
+        news.setCategory(category);
+        // Inactive and already expired, so a run that dies before cleanup never shows up in feeds
+        news.setActive(false);
+        news.setPublishedAt(now);
+        news.setExpiresAt(now);
+        return news;
+    }
+}
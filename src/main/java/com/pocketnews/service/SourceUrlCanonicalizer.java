@@ -0,0 +1,182 @@
+package com.pocketnews.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Reduces the many spellings of one article link to a single dedupe key.
+ *
+ * The same story reaches us with utm_* tracking, AMP variants, www/non-www
+ * hosts and trailing-slash differences. The canonical form is only used to
+ * compare links; users are still sent to the original sourceUrl.
+ *
+ * Feedburner/feedproxy links are opaque redirects, so they are kept as
+ * they are; once ArticleScraper has followed one, {@link #canonicalize(String, String)}
+ * uses the page it landed on instead.
+ */
+@Component
+public class SourceUrlCanonicalizer {
+
+    // Dropped everywhere, along with utm_*: click IDs that never select content.
+    // Names like ref, source or cmp can be real parameters, so they're per-domain only.
+    private static final Set<String> TRACKING_PARAMS = Set.of(
+            "fbclid", "gclid", "dclid", "msclkid", "mc_cid", "mc_eid", "igshid", "yclid");
+
+    // Matches every parameter in a domain's list
+    private static final String ALL_PARAMS = "*";
+
+    // Per-domain parameters that never change the article. Our sources' article
+    // URLs never need a query string, so everything after '?' is tracking there.
+    private static final Map<String, Set<String>> DEFAULT_DOMAIN_PARAMS = Map.of(
+            "ndtv.com", Set.of(ALL_PARAMS),
+            "thehindu.com", Set.of(ALL_PARAMS),
+            "gadgets360.com", Set.of(ALL_PARAMS),
+            "yourstory.com", Set.of(ALL_PARAMS),
+            "autocarindia.com", Set.of(ALL_PARAMS),
+            "vogue.in", Set.of(ALL_PARAMS),
+            "business-standard.com", Set.of(ALL_PARAMS),
+            "timesofindia.indiatimes.com", Set.of(ALL_PARAMS),
+            "economictimes.indiatimes.com", Set.of(ALL_PARAMS));
+
+    // Link shorteners/redirectors the feeds use; the link itself says nothing about the article
+    private static final Set<String> REDIRECT_HOSTS = Set.of("feedproxy.google.com", "feeds.feedburner.com");
+
+    // Per-domain path rewrites for AMP variants: pattern → replacement
+    private static final Map<String, List<String[]>> PATH_RULES = Map.of(
+            "timesofindia.indiatimes.com", List.<String[]>of(new String[]{"/amp_articleshow/", "/articleshow/"}),
+            "economictimes.indiatimes.com", List.<String[]>of(new String[]{"/amp_articleshow/", "/articleshow/"}),
+            "business-standard.com", List.<String[]>of(new String[]{"/amp/", "/"})
+    );
+
+    private final Map<String, Set<String>> domainParams;
+
+    public SourceUrlCanonicalizer(@Value("${app.dedupe.canonical-params:}") String configuredParams) {
+        Map<String, Set<String>> merged = new HashMap<>(DEFAULT_DOMAIN_PARAMS);
+        merged.putAll(parseDomainParams(configuredParams));
+        this.domainParams = Map.copyOf(merged);
+    }
+
+    /**
+     * Returns the canonical form of {@code url}, or the trimmed input if it
+     * can't be parsed. Redirect links come back unchanged.
+     */
+    public String canonicalize(String url) {
+        if (url == null) return null;
+        String trimmed = url.trim();
+        try {
+            URI uri = new URI(trimmed);
+            if (uri.getHost() == null) return trimmed;
+
+            String host = uri.getHost().toLowerCase(Locale.ROOT);
+            if (REDIRECT_HOSTS.contains(host)) return trimmed;
+            if (host.startsWith("www.")) host = host.substring(4);
+            if (host.startsWith("amp.")) host = host.substring(4);
+            if (host.startsWith("m.")) host = host.substring(2);
+
+            String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+            path = rewritePath(host, path);
+
+            String query = canonicalQuery(host, uri.getRawQuery());
+
+            StringBuilder canonical = new StringBuilder("https://").append(host).append(path);
+            if (!query.isEmpty()) canonical.append('?').append(query);
+            return canonical.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
+    /**
+     * The canonical form of a scraped link: for a redirect link, the page
+     * ArticleScraper ended up on ({@code resolvedUrl}); otherwise the link's
+     * own canonical form, so a stored row is still found by it next run.
+     */
+    public String canonicalize(String sourceUrl, String resolvedUrl) {
+        if (resolvedUrl != null && isRedirect(sourceUrl)) return canonicalize(resolvedUrl);
+        return canonicalize(sourceUrl);
+    }
+
+    /** Whether {@code url} is a feedburner/feedproxy redirect link. */
+    public boolean isRedirect(String url) {
+        if (url == null) return false;
+        try {
+            String host = new URI(url.trim()).getHost();
+            return host != null && REDIRECT_HOSTS.contains(host.toLowerCase(Locale.ROOT));
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+
+    private String rewritePath(String host, String path) {
+        for (Map.Entry<String, List<String[]>> rule : PATH_RULES.entrySet()) {
+            if (matches(host, rule.getKey())) {
+                for (String[] rewrite : rule.getValue()) {
+                    path = path.replace(rewrite[0], rewrite[1]);
+                }
+            }
+        }
+
+        // Generic AMP suffixes: /story-123/amp, /story-123/amp/1, /article123.ece/amp/
+        path = path.replaceAll("/amp(/\\d*)?/?$", "");
+
+        // Trailing slash and duplicate slashes don't change the article
+        path = path.replaceAll("/{2,}", "/");
+        while (path.length() > 1 && path.endsWith("/")) path = path.substring(0, path.length() - 1);
+        return path.equals("/") ? "" : path;
+    }
+
+    private String canonicalQuery(String host, String rawQuery) {
+        if (rawQuery == null || rawQuery.isEmpty()) return "";
+        // The most specific listed domain wins
+        Set<String> dropped = Set.of();
+        String matched = "";
+        for (Map.Entry<String, Set<String>> entry : domainParams.entrySet()) {
+            if (matches(host, entry.getKey()) && entry.getKey().length() > matched.length()) {
+                matched = entry.getKey();
+                dropped = entry.getValue();
+            }
+        }
+        if (dropped.contains(ALL_PARAMS)) return "";
+
+        List<String> kept = new ArrayList<>();
+        for (String param : rawQuery.split("&")) {
+            if (param.isEmpty()) continue;
+            String name = param.split("=", 2)[0].toLowerCase(Locale.ROOT);
+            if (name.startsWith("utm_") || TRACKING_PARAMS.contains(name) || dropped.contains(name)) continue;
+            kept.add(param);
+        }
+        kept.sort(String::compareTo);
+        return String.join("&", kept);
+    }
+
+    private boolean matches(String host, String domain) {
+        return host.equals(domain) || host.endsWith("." + domain);
+    }
+
+    // "example.com=ref,source;example.org=*"
+    private Map<String, Set<String>> parseDomainParams(String configured) {
+        Map<String, Set<String>> parsed = new HashMap<>();
+        if (configured == null || configured.isBlank()) return parsed;
+        for (String entry : configured.split(";")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length == 2 && !parts[0].isBlank() && !parts[1].isBlank()) {
+                parsed.put(parts[0].trim().toLowerCase(Locale.ROOT), Arrays.stream(parts[1].split(","))
+                        .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                        .filter(name -> !name.isEmpty())
+                        .collect(Collectors.toUnmodifiableSet()));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,290 @@
+package com.pocketnews.service;
+
+import com.pocketnews.entity.News;
+import com.pocketnews.repository.NewsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Answers "have we already stored this source URL?" for a whole feed at once.
+ * Callers pass canonical URLs (see SourceUrlCanonicalizer).
+ *
+ * An in-memory Bloom filter over every stored source URL (active or not,
+ * like existsBySourceUrl) rejects brand-new URLs without touching the
+ * database. URLs the filter *might* have seen are
+ * confirmed with a single IN query per batch instead of one
+ * existsBySourceUrl round-trip per item.
+ */
+@Component
+public class SourceUrlDeduplicator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SourceUrlDeduplicator.class);
+
+    // Rows per transaction in the canonical_url backfill
+    private static final int BACKFILL_CHUNK = 500;
+
+    private final NewsRepository newsRepository;
+    private final SourceUrlCanonicalizer sourceUrlCanonicalizer;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.dedupe.bloom-expected-urls:50000}")
+    private int expectedUrls;
+
+    @Value("${app.dedupe.bloom-false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+
+    // Guards filter swaps and pendingRebuilds. A ReentrantLock rather than
+    // synchronized, so virtual threads waiting on it don't pin their carrier.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Serializes the first load, which queries the DB while held
+    private final ReentrantLock loadLock = new ReentrantLock();
+
+    // One set per rebuild in progress: URLs recorded while it loads from the DB,
+    // replayed into its new filter. Identity-based: two empty sets are equal.
+    private final Set<Set<String>> pendingRebuilds = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    public SourceUrlDeduplicator(NewsRepository newsRepository,
+                                 SourceUrlCanonicalizer sourceUrlCanonicalizer,
+                                 PlatformTransactionManager transactionManager) {
+        this.newsRepository = newsRepository;
+        this.sourceUrlCanonicalizer = sourceUrlCanonicalizer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        backfillCanonicalUrls();
+        ensureLoaded();
+    }
+
+    /**
+     * Fills in canonical_url for rows saved before it existed. Their raw
+     * source_url never equals a canonical link, so without this they'd be
+     * ingested and summarized again. Written BACKFILL_CHUNK rows per
+     * transaction with saveAll, which Hibernate sends as JDBC batches.
+     * A no-op once every row has one.
+     */
+    private void backfillCanonicalUrls() {
+        List<NewsRepository.SourceUrlView> missing = newsRepository.findMissingCanonicalUrl();
+        if (missing.isEmpty()) return;
+        int updated = 0;
+        for (int from = 0; from < missing.size(); from += BACKFILL_CHUNK) {
+            List<NewsRepository.SourceUrlView> chunk = missing.subList(from, Math.min(from + BACKFILL_CHUNK, missing.size()));
+            updated += transactionTemplate.execute(status -> backfill(chunk));
+        }
+        logger.info("Backfilled canonical_url for {} of {} older news rows", updated, missing.size());
+    }
+
+    private int backfill(List<NewsRepository.SourceUrlView> rows) {
+        Map<Long, String> canonicalById = new HashMap<>();
+        for (NewsRepository.SourceUrlView row : rows) {
+            String canonical = sourceUrlCanonicalizer.canonicalize(row.getSourceUrl());
+            if (canonical != null) canonicalById.put(row.getId(), canonical);
+        }
+        List<News> news = newsRepository.findAllById(canonicalById.keySet());
+        news.forEach(n -> n.setCanonicalUrl(canonicalById.get(n.getId())));
+        newsRepository.saveAll(news);
+        return news.size();
+    }
+
+    /**
+     * Returns the subset of {@code urls} that is not stored yet, keeping the
+     * input order. At most one database query regardless of batch size.
+     */
+    public Set<String> findNew(Collection<String> urls) {
+        BloomFilter current = ensureLoaded();
+
+        Set<String> fresh = new LinkedHashSet<>();
+        List<String> maybeKnown = new ArrayList<>();
+        for (String url : urls) {
+            if (url == null) continue;
+            if (current.mightContain(url)) {
+                maybeKnown.add(url);
+            } else {
+                fresh.add(url);
+            }
+        }
+
+        if (!maybeKnown.isEmpty()) {
+            Set<String> existing = new HashSet<>();
+            newsRepository.findExistingDedupeUrls(maybeKnown).forEach(row -> keysOf(row, existing::add));
+            for (String url : maybeKnown) {
+                if (!existing.contains(url)) fresh.add(url);
+            }
+        }
+
+        logger.debug("URL dedupe: {} checked, {} rejected by filter only, {} confirmed in DB, {} new",
+                urls.size(), urls.size() - maybeKnown.size(), maybeKnown.size(), fresh.size());
+
+        // Preserve caller's order
+        Set<String> ordered = new LinkedHashSet<>();
+        for (String url : urls) {
+            if (fresh.contains(url)) ordered.add(url);
+        }
+        return ordered;
+    }
+
+    /** Call after a News row has been inserted, with its canonical and raw source URL. */
+    public void record(String canonicalUrl, String sourceUrl) {
+        record(canonicalUrl);
+        if (sourceUrl != null && !sourceUrl.equals(canonicalUrl)) record(sourceUrl);
+    }
+
+    /** Call after a News row with this source URL has been inserted. */
+    public void record(String url) {
+        if (url == null) return;
+        lock.lock();
+        try {
+            if (filter != null) filter.put(url);
+            pendingRebuilds.forEach(pending -> pending.add(url));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Reloads the filter from every stored row, e.g. after expired rows were
+     * deleted. Safe to run concurrently: each rebuild tracks its own
+     * pending URLs, and the DB query runs without holding the lock.
+     */
+    public void rebuild() {
+        Set<String> pending = ConcurrentHashMap.newKeySet();
+        lock.lock();
+        try {
+            pendingRebuilds.add(pending);
+        } finally {
+            lock.unlock();
+        }
+
+        List<String> stored = new ArrayList<>();
+        try {
+            newsRepository.findAllDedupeUrls().forEach(row -> keysOf(row, stored::add));
+        } catch (RuntimeException e) {
+            lock.lock();
+            try {
+                pendingRebuilds.remove(pending);
+            } finally {
+                lock.unlock();
+            }
+            throw e;
+        }
+        BloomFilter fresh = new BloomFilter(Math.max(expectedUrls, stored.size() * 2), falsePositiveRate);
+        stored.forEach(fresh::put);
+
+        lock.lock();
+        try {
+            pendingRebuilds.remove(pending);
+            pending.forEach(fresh::put);
+            filter = fresh;
+        } finally {
+            lock.unlock();
+        }
+        logger.info("Source URL filter rebuilt with {} URLs", stored.size());
+    }
+
+    // canonical_url (source_url until backfilled) and, where it differs, the raw source_url
+    private static void keysOf(NewsRepository.DedupeUrlView row, Consumer<String> keys) {
+        String canonical = row.getCanonicalUrl() != null ? row.getCanonicalUrl() : row.getSourceUrl();
+        if (canonical != null) keys.accept(canonical);
+        if (row.getSourceUrl() != null && !row.getSourceUrl().equals(canonical)) keys.accept(row.getSourceUrl());
+    }
+
+    private BloomFilter ensureLoaded() {
+        BloomFilter current = filter;
+        if (current != null) return current;
+        loadLock.lock();
+        try {
+            if (filter == null) rebuild();
+            return filter;
+        } finally {
+            loadLock.unlock();
+        }
+    }
+
+    /* ============================================================
+       BLOOM FILTER — lock-free bit set, double hashing
+       ============================================================ */
+
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double fpp) {
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.bitCount = Math.max(64, m);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((int) ((bitCount + 63) / 64));
+        }
+
+        void put(String value) {
+            long h1 = hash(value);
+            long h2 = fmix64(h1 + 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long old;
+                do {
+                    old = bits.get(word);
+                    if ((old & mask) != 0) break;
+                } while (!bits.compareAndSet(word, old, old | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = fmix64(h1 + 0x9E3779B97F4A7C15L);
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) return false;
+            }
+            return true;
+        }
+
+        // FNV-1a over UTF-8 bytes, finished with the murmur3 mixer
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                h ^= b;
+                h *= 0x100000001b3L;
+            }
+            return fmix64(h);
+        }
+
+        private static long fmix64(long h) {
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb9fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Decides which article Claude summarizes next when more are waiting than
+ * there are workers.
+ *
+ * Items used to reach Claude in feed-list order, so a burst of fashion or
+ * automobile posts could hold up breaking top stories. Here every item is
+ * ranked by its category's priority level and by how fresh it is: each
+ * level below top priority counts as levelWeightMinutes of extra age.
+ * Items that have waited in the queue longer than the deadline when their
+ * turn comes are dropped rather than summarized late; the deadline only
+ * bites when the queue is backlogged, never on an old item's age alone.
+ */
+@Component
+public class SummarizationQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummarizationQueue.class);
+
+    // Lower level = summarized sooner; unlisted categories get DEFAULT_LEVEL
+    private static final Map<String, Integer> DEFAULT_LEVELS = Map.ofEntries(
+            Map.entry("top-stories", 0),
+            Map.entry("india", 1),
+            Map.entry("world", 1),
+            Map.entry("politics", 1),
+            Map.entry("business", 2),
+            Map.entry("law-order", 2),
+            Map.entry("technology", 2),
+            Map.entry("sports", 2),
+            Map.entry("science", 3),
+            Map.entry("health-fitness", 3),
+            Map.entry("startup", 3),
+            Map.entry("entertainment", 3),
+            Map.entry("automobile", 4),
+            Map.entry("fashion", 4)
+    );
+    private static final int DEFAULT_LEVEL = 3;
+
+    private final int workers;
+    private final Duration levelWeight;
+    private final Duration deadline;
+    private final Map<String, Integer> levels;
+
+    private final PriorityBlockingQueue<Task<?>> queue = new PriorityBlockingQueue<>(64,
+            Comparator.comparingLong((Task<?> t) -> t.rank).thenComparingLong(t -> t.sequence));
+    private final AtomicLong sequence = new AtomicLong();
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter expired;
+
+    public SummarizationQueue(
+            MeterRegistry meterRegistry,
+            @Value("${app.summarize.workers:4}") int workers,
+            @Value("${app.summarize.level-weight-minutes:30}") long levelWeightMinutes,
+            @Value("${app.summarize.deadline-minutes:240}") long deadlineMinutes,
+            @Value("${app.summarize.category-priority:}") String categoryPriority) {
+        this.meterRegistry = meterRegistry;
+        this.workers = Math.max(1, workers);
+        this.levelWeight = Duration.ofMinutes(levelWeightMinutes);
+        this.deadline = Duration.ofMinutes(deadlineMinutes);
+
+        Map<String, Integer> merged = new HashMap<>(DEFAULT_LEVELS);
+        merged.putAll(parseLevels(categoryPriority));
+        this.levels = Map.copyOf(merged);
+
+        Gauge.builder("pocketnews.summarize.queued", queue, PriorityBlockingQueue::size)
+                .description("Articles waiting for a summarization worker")
+                .register(meterRegistry);
+        this.expired = Counter.builder("pocketnews.summarize.expired")
+                .description("Articles dropped because they waited past the summarization deadline")
+                .register(meterRegistry);
+    }
+
+    private static final class Task<T> {
+        private final long rank;
+        private final long sequence;
+        private final String category;
+        private final long enqueuedAt = System.nanoTime();
+        private final Supplier<T> work;
+        private final CompletableFuture<Optional<T>> result = new CompletableFuture<>();
+
+        private Task(long rank, long sequence, String category, Supplier<T> work) {
+            this.rank = rank;
+            this.sequence = sequence;
+            this.category = category;
+            this.work = work;
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        for (int i = 0; i < workers; i++) {
+            workerThreads.add(Thread.ofVirtual().name("summarizer-" + i).start(this::workLoop));
+        }
+        logger.info("Summarization queue started with {} workers, deadline {} min", workers, deadline.toMinutes());
+    }
+
+    @PreDestroy
+    public void stop() {
+        workerThreads.forEach(Thread::interrupt);
+        Task<?> task;
+        while ((task = queue.poll()) != null) task.result.cancel(false);
+    }
+
+    /**
+     * Runs {@code work} once it's this item's turn and returns its result;
+     * empty if it waited past the deadline before a worker got to it.
+     * Blocks the caller (a virtual thread) meanwhile.
+     *
+     * @param categoryHints the feed's categories; the highest-priority one ranks the item
+     * @param publishedAt   when the item was published, or null to count from now; ranks only
+     */
+    public <T> Optional<T> submit(List<String> categoryHints, LocalDateTime publishedAt, Supplier<T> work) {
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        LocalDateTime published = publishedAt == null || publishedAt.isAfter(now) ? now : publishedAt;
+
+        String category = categoryHints.stream()
+                .min(Comparator.comparingInt(this::levelOf))
+                .orElse("unknown");
+
+        // Older and lower-priority items rank higher (= later); each level counts as levelWeight of age
+        long rank = -published.toInstant(ZoneOffset.UTC).toEpochMilli()
+                + levelOf(category) * levelWeight.toMillis();
+
+        Task<T> task = new Task<>(rank, sequence.incrementAndGet(), category, work);
+        queue.put(task);
+        try {
+            return task.result.get();
+        } catch (InterruptedException e) {
+            queue.remove(task);
+            task.result.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Interrupted while waiting for summarization");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void workLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            Task<?> task;
+            try {
+                task = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            run(task);
+        }
+    }
+
+    private <T> void run(Task<T> task) {
+        if (task.result.isDone()) return;
+
+        long waitedNanos = System.nanoTime() - task.enqueuedAt;
+        Timer.builder("pocketnews.summarize.wait")
+                .description("Time an article waited for a summarization worker")
+                .tag("category", task.category)
+                .register(meterRegistry)
+                .record(waitedNanos, TimeUnit.NANOSECONDS);
+
+        if (waitedNanos > deadline.toNanos()) {
+            expired.increment();
+            logger.info("Dropping {} article after {} min in the queue — past the {} min summarization deadline",
+                    task.category, TimeUnit.NANOSECONDS.toMinutes(waitedNanos), deadline.toMinutes());
+            task.result.complete(Optional.empty());
+            return;
+        }
+
+        try {
+            task.result.complete(Optional.ofNullable(task.work.get()));
+        } catch (RuntimeException e) {
+            task.result.completeExceptionally(e);
+        }
+    }
+
+    private int levelOf(String category) {
+        return levels.getOrDefault(category, DEFAULT_LEVEL);
+    }
+
+    // "top-stories=0,fashion=5"
+    private Map<String, Integer> parseLevels(String configured) {
+        Map<String, Integer> parsed = new HashMap<>();
+        if (configured == null || configured.isBlank()) return parsed;
+        for (String entry : configured.split(",")) {
+            String[] parts = entry.split("=", 2);
+            if (parts.length != 2) continue;
+            try {
+                parsed.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+            } catch (NumberFormatException e) {
+                logger.warn("Ignoring bad category priority '{}'", entry);
+            }
+        }
+        return parsed;
+    }
+}
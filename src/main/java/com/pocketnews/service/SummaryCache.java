@@ -0,0 +1,244 @@
+package com.pocketnews.service;
+
+import com.pocketnews.entity.SummaryCacheEntry;
+import com.pocketnews.repository.NewsRepository;
+import com.pocketnews.repository.SummaryCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Claude results keyed by what they were made from rather than by URL: the
+ * same wire story reaches us through several feeds under different links,
+ * and each copy used to cost its own call.
+ *
+ * The key is SHA-256 over the request kind plus title and content after
+ * normalization (Unicode NFKC, lower case, punctuation and whitespace runs
+ * collapsed), so copies that differ only in quotes, dashes or spacing
+ * still match. Two tiers:
+ *
+ *   memory   — LRU of app.summary-cache.max-entries, checked first
+ *   database — summary_cache table, survives restarts; hits are promoted
+ *
+ * Entries older than app.summary-cache.ttl-hours are ignored and purged
+ * nightly; app.summary-cache.enabled=false turns both tiers off. Only real
+ * Claude answers are stored — never the truncation fallback, and never a
+ * duplicate verdict (that depends on what else was published at the time).
+ * Instead, an ANALYSIS hit whose summary is still on an active News (see
+ * isPublished) is a copy of a story we already have.
+ */
+@Component
+public class SummaryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(SummaryCache.class);
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    public enum Kind { SUMMARY, ANALYSIS }
+
+    /** A cached result; category is null for SUMMARY. */
+    public record Entry(String shortHeadline, String shortContent, String category) {}
+
+    private record Cached(Entry entry, long createdAtMillis) {}
+
+    private final SummaryCacheRepository repository;
+    private final NewsRepository newsRepository;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final Map<String, Cached> memory;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+
+    public SummaryCache(SummaryCacheRepository repository,
+                        NewsRepository newsRepository,
+                        MeterRegistry meterRegistry,
+                        @Value("${app.summary-cache.enabled:true}") boolean enabled,
+                        @Value("${app.summary-cache.max-entries:5000}") int maxEntries,
+                        @Value("${app.summary-cache.ttl-hours:72}") long ttlHours) {
+        this.repository = repository;
+        this.newsRepository = newsRepository;
+        this.enabled = enabled;
+        this.ttl = Duration.ofHours(ttlHours);
+        int capacity = Math.max(1, maxEntries);
+        this.memory = new LinkedHashMap<>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Cached> eldest) {
+                return size() > capacity;
+            }
+        };
+
+        this.memoryHits = meterRegistry.counter("pocketnews.summary_cache.lookups", "result", "hit", "tier", "memory");
+        this.databaseHits = meterRegistry.counter("pocketnews.summary_cache.lookups", "result", "hit", "tier", "database");
+        this.misses = meterRegistry.counter("pocketnews.summary_cache.lookups", "result", "miss", "tier", "none");
+        Gauge.builder("pocketnews.summary_cache.hit_ratio", this, SummaryCache::hitRatio)
+                .description("Share of summary lookups answered without calling Claude")
+                .register(meterRegistry);
+        Gauge.builder("pocketnews.summary_cache.size", this, cache -> cache.memorySize())
+                .description("Entries in the in-memory summary cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The cached result for this text, if any. The memory tier is checked
+     * inline; the database lookup runs on boundedElastic, so this is safe
+     * to call from an event-loop thread.
+     */
+    public Mono<Entry> lookup(Kind kind, String title, String content) {
+        if (!enabled) return Mono.empty();
+        String key = keyOf(kind, title, content);
+        lookups.incrementAndGet();
+
+        Entry cached = fromMemory(key);
+        if (cached != null) {
+            memoryHits.increment();
+            hits.incrementAndGet();
+            return Mono.just(cached);
+        }
+
+        return Mono.fromCallable(() -> fromDatabase(key).orElse(null))
+                .subscribeOn(Schedulers.boundedElastic())
+                .doOnNext(entry -> {
+                    databaseHits.increment();
+                    hits.incrementAndGet();
+                })
+                .switchIfEmpty(Mono.fromRunnable(misses::increment));
+    }
+
+    /**
+     * Whether a News made from this entry is still active. An ANALYSIS hit
+     * means this exact text was analyzed before — normally because it was
+     * published — so while that story is live the hit is a duplicate.
+     * Runs on boundedElastic; a failed check counts as not published.
+     */
+    public Mono<Boolean> isPublished(Entry entry) {
+        return Mono.fromCallable(() -> newsRepository.existsByShortHeadlineAndShortContentAndActiveTrue(
+                        entry.shortHeadline(), entry.shortContent()))
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> {
+                    logger.warn("Summary cache publish check failed: {}", e.getMessage());
+                    return Mono.just(false);
+                });
+    }
+
+    /**
+     * Remembers a Claude result. Memory is updated at once; the database
+     * write happens in the background and a failure only costs a future hit.
+     */
+    public void store(Kind kind, String title, String content, Entry entry) {
+        if (!enabled || entry == null || entry.shortHeadline() == null || entry.shortContent() == null) return;
+        String key = keyOf(kind, title, content);
+        long now = System.currentTimeMillis();
+        synchronized (memory) {
+            memory.put(key, new Cached(entry, now));
+        }
+
+        Schedulers.boundedElastic().schedule(() -> {
+            try {
+                SummaryCacheEntry row = new SummaryCacheEntry();
+                row.setContentHash(key);
+                // Set here, not by @PrePersist: an expired row for the same key is merged, not inserted
+                row.setCreatedAt(LocalDateTime.now(ZoneOffset.UTC));
+                row.setShortHeadline(entry.shortHeadline());
+                row.setShortContent(entry.shortContent());
+                row.setCategory(entry.category());
+                repository.save(row);
+            } catch (Exception e) {
+                logger.warn("Could not persist summary cache entry: {}", e.getMessage());
+            }
+        });
+    }
+
+    /** Deletes database entries past the TTL; returns how many. */
+    public int purgeExpired() {
+        int deleted = repository.deleteCreatedBefore(LocalDateTime.now(ZoneOffset.UTC).minus(ttl));
+        long cutoff = System.currentTimeMillis() - ttl.toMillis();
+        synchronized (memory) {
+            memory.values().removeIf(cached -> cached.createdAtMillis() < cutoff);
+        }
+        logger.info("Purged {} expired summary cache entries", deleted);
+        return deleted;
+    }
+
+    private Entry fromMemory(String key) {
+        synchronized (memory) {
+            Cached cached = memory.get(key);
+            if (cached == null) return null;
+            if (System.currentTimeMillis() - cached.createdAtMillis() > ttl.toMillis()) {
+                memory.remove(key);
+                return null;
+            }
+            return cached.entry();
+        }
+    }
+
+    private Optional<Entry> fromDatabase(String key) {
+        try {
+            return repository.findById(key)
+                    .filter(row -> row.getCreatedAt().isAfter(LocalDateTime.now(ZoneOffset.UTC).minus(ttl)))
+                    .map(row -> {
+                        Entry entry = new Entry(row.getShortHeadline(), row.getShortContent(), row.getCategory());
+                        long createdAt = row.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+                        synchronized (memory) {
+                            memory.put(key, new Cached(entry, createdAt));
+                        }
+                        return entry;
+                    });
+        } catch (Exception e) {
+            // A cache that can't be read is a miss, not a failed summary
+            logger.warn("Summary cache lookup failed: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private double hitRatio() {
+        long total = lookups.get();
+        return total == 0 ? 0.0 : (double) hits.get() / total;
+    }
+
+    private int memorySize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    private static String keyOf(Kind kind, String title, String content) {
+        String text = kind.name() + "\n" + normalize(title) + "\n" + normalize(content);
+        try {
+            return HexFormat.of().formatHex(
+                    MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return NON_WORD.matcher(folded).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,256 @@
+package com.pocketnews.service;
+
+import com.pocketnews.ReplayStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Pattern;
+
+/**
+ * Turns a publisher's full-size image into a small JPEG thumbnail plus a
+ * BlurHash placeholder at ingestion time.
+ *
+ * Thumbnails are stored content-addressed (SHA-256 of the JPEG bytes) under
+ * app.thumbnails.dir, so identical images are stored once and a thumbnail's
+ * URL never changes — clients can cache it forever. At most maxConcurrent
+ * images are downloaded and resized at once.
+ */
+@Component
+public class ThumbnailService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ThumbnailService.class);
+
+    private static final Pattern HASH = Pattern.compile("[0-9a-f]{64}");
+    // BlurHash is computed on a tiny copy; 4×3 components is the usual card-sized placeholder
+    private static final int BLURHASH_SOURCE_SIZE = 32;
+    private static final int BLURHASH_X = 4;
+    private static final int BLURHASH_Y = 3;
+
+    private final Path root;
+    private final String contextPath;
+    private final int width;
+    private final float quality;
+    private final long maxSourceBytes;
+    private final long maxSourcePixels;
+    private final Semaphore permits;
+    private final ReplayStore replayStore;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .followRedirects(HttpClient.Redirect.NORMAL)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public ThumbnailService(
+            ReplayStore replayStore,
+            @Value("${app.thumbnails.dir:./data/thumbnails}") String dir,
+            @Value("${server.servlet.context-path:}") String contextPath,
+            @Value("${app.thumbnails.width:320}") int width,
+            @Value("${app.thumbnails.quality:0.75}") float quality,
+            @Value("${app.thumbnails.max-source-bytes:5242880}") long maxSourceBytes,
+            @Value("${app.thumbnails.max-source-pixels:40000000}") long maxSourcePixels,
+            @Value("${app.thumbnails.max-concurrent:4}") int maxConcurrent) {
+        this.replayStore = replayStore;
+        this.root = Path.of(dir);
+        this.contextPath = contextPath.endsWith("/") ? contextPath.substring(0, contextPath.length() - 1) : contextPath;
+        this.width = Math.max(16, width);
+        this.quality = quality;
+        this.maxSourceBytes = maxSourceBytes;
+        this.maxSourcePixels = maxSourcePixels;
+        this.permits = new Semaphore(Math.max(1, maxConcurrent));
+    }
+
+    /** Content hash of the stored JPEG and the BlurHash placeholder. */
+    public record Thumbnail(String hash, String blurHash) {}
+
+    /**
+     * Downloads and processes {@code imageUrl}; empty when there's no image,
+     * it can't be decoded (e.g. WebP) or the download fails. Never throws —
+     * the article is saved either way.
+     */
+    public Optional<Thumbnail> generate(String imageUrl) {
+        if (imageUrl == null || imageUrl.isBlank()) return Optional.empty();
+        try {
+            permits.acquire();
+            try {
+                BufferedImage source = download(imageUrl);
+                if (source == null) {
+                    logger.debug("Unsupported or unreadable image: {}", imageUrl);
+                    return Optional.empty();
+                }
+                return Optional.of(process(source));
+            } finally {
+                permits.release();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        } catch (Exception e) {
+            logger.warn("Could not create thumbnail for {}: {}", imageUrl, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /** Resizes, stores and hashes an already decoded image. */
+    public Thumbnail process(BufferedImage source) throws IOException {
+        BufferedImage thumbnail = resize(source, Math.min(width, source.getWidth()));
+        byte[] jpeg = toJpeg(thumbnail);
+        String hash = sha256(jpeg);
+        store(hash, jpeg);
+
+        String blurHash = BlurHash.encode(resize(thumbnail, BLURHASH_SOURCE_SIZE), BLURHASH_X, BLURHASH_Y);
+        return new Thumbnail(hash, blurHash);
+    }
+
+    /**
+     * Public URL of a stored thumbnail (served by ImageController), or null.
+     * Includes the servlet context path (/api), since clients resolve it
+     * against the host. Not built from the current request, because DTOs are
+     * also mapped off the request thread (e.g. NewsService.createNews).
+     */
+    public String urlOf(String hash) {
+        return hash == null ? null : contextPath + "/images/" + hash + ".jpg";
+    }
+
+    /** The stored file for a content hash, if it exists. */
+    public Optional<Path> find(String hash) {
+        if (hash == null || !HASH.matcher(hash).matches()) return Optional.empty();
+        Path file = pathOf(hash);
+        return Files.exists(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private BufferedImage download(String imageUrl) throws IOException, InterruptedException {
+        if (replayStore.isReplaying()) {
+            byte[] recorded = replayStore.replay(ReplayStore.Kind.IMAGE, imageUrl)
+                    .orElseThrow(() -> new IOException("no recorded image"));
+            return decode(recorded);
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(imageUrl))
+                .header("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36")
+                .timeout(Duration.ofSeconds(10))
+                .GET()
+                .build();
+        HttpResponse<InputStream> response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+        try (InputStream body = response.body()) {
+            if (response.statusCode() >= 400) {
+                throw new IOException("HTTP " + response.statusCode());
+            }
+            byte[] bytes = body.readNBytes((int) Math.min(Integer.MAX_VALUE, maxSourceBytes + 1));
+            if (bytes.length > maxSourceBytes) {
+                throw new IOException("image larger than " + maxSourceBytes / 1024 + " KB");
+            }
+            replayStore.record(ReplayStore.Kind.IMAGE, imageUrl, bytes);
+            return decode(bytes);
+        }
+    }
+
+    /**
+     * Decodes an image, or null when no reader supports the format. The
+     * header's dimensions are checked before any pixels are decoded: a few
+     * KB of PNG can declare a 50000×50000 image, and max-source-bytes alone
+     * wouldn't stop that from allocating gigabytes.
+     */
+    BufferedImage decode(byte[] bytes) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = in == null ? null : ImageIO.getImageReaders(in);
+            if (readers == null || !readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxSourcePixels) {
+                    throw new IOException("image too large: " + reader.getWidth(0) + "x" + reader.getHeight(0));
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private BufferedImage resize(BufferedImage source, int targetWidth) {
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+        BufferedImage resized = new BufferedImage(targetWidth, targetHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, targetWidth, targetHeight, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private byte[] toJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 * 1024);
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            ImageWriteParam params = writer.getDefaultWriteParam();
+            params.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            params.setCompressionQuality(quality);
+            writer.setOutput(stream);
+            writer.write(null, new IIOImage(image, null, null), params);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    // Write to a temp file and move into place, so readers never see a partial image
+    private void store(String hash, byte[] jpeg) throws IOException {
+        Path file = pathOf(hash);
+        if (Files.exists(file)) return;
+        Files.createDirectories(file.getParent());
+        Path tmp = Files.createTempFile(file.getParent(), hash, ".tmp");
+        try {
+            Files.write(tmp, jpeg);
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    // Two-level fan-out keeps directories small: ab/abcdef….jpg
+    private Path pathOf(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash + ".jpg");
+    }
+
+    private String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
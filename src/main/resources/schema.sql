@@ -0,0 +1,5 @@
+-- news.id moved from IDENTITY to news_seq (allocationSize 50, pooled optimizer).
+-- Hibernate creates the sequence on a fresh schema; on an existing one, make sure
+-- it never hands out an id at or below the current max.
+CREATE SEQUENCE IF NOT EXISTS news_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('news_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM news), (SELECT last_value FROM news_seq)));
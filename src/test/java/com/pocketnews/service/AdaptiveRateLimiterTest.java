@@ -0,0 +1,67 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveRateLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AdaptiveRateLimiter limiter = new AdaptiveRateLimiter("test", 10, 1, 2, 3, registry);
+
+    @BeforeAll
+    static void warmUpReactor() {
+        // Keeps Reactor's one-off startup out of the timings below
+        Mono.delay(Duration.ofMillis(1)).block();
+    }
+
+    @Test
+    void letsABurstThroughThenSpacesRequestsOut() {
+        long burst = millisToAcquire(3);
+        long next = millisToAcquire(1);
+
+        assertThat(burst).isLessThan(50);
+        // 10 per second: the fourth request waits for the next 100 ms slot
+        assertThat(next).isBetween(60L, 250L);
+    }
+
+    @Test
+    void halvesTheRateOnEach429AndRecoversOnSuccess() {
+        limiter.onThrottled(null);
+        assertThat(rate()).isEqualTo(5);
+        limiter.onThrottled(null);
+        limiter.onThrottled(null);
+        limiter.onThrottled(null);
+        assertThat(rate()).isEqualTo(1);
+        assertThat(registry.get("test.throttled").counter().count()).isEqualTo(4);
+
+        limiter.onSuccess();
+        assertThat(rate()).isEqualTo(3);
+        for (int i = 0; i < 10; i++) limiter.onSuccess();
+        assertThat(rate()).isEqualTo(10);
+    }
+
+    @Test
+    void holdsEveryRequestUntilRetryAfter() {
+        limiter.onThrottled(Duration.ofMillis(400));
+
+        assertThat(millisToAcquire(1)).isGreaterThanOrEqualTo(350);
+    }
+
+    private long millisToAcquire(int requests) {
+        long started = System.nanoTime();
+        for (int i = 0; i < requests; i++) {
+            limiter.acquire().block(Duration.ofSeconds(5));
+        }
+        return Duration.ofNanos(System.nanoTime() - started).toMillis();
+    }
+
+    private double rate() {
+        return registry.get("test.rate").gauge().value();
+    }
+}
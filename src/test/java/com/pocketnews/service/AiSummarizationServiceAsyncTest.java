@@ -0,0 +1,89 @@
+package com.pocketnews.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** The non-blocking Claude client against a local stand-in API. */
+class AiSummarizationServiceAsyncTest {
+
+    private static final long RESPONSE_DELAY_MS = 300;
+
+    private StandInClaudeServer server;
+    private AiSummarizationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInClaudeServer();
+        service = server.client(4, 100, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void keepsManyAnalysesInFlightWithinTheLimit() {
+        server.on("POST", "/v1/messages", request -> {
+            Thread.sleep(RESPONSE_DELAY_MS);
+            return StandInClaudeServer.Response.ok(StandInClaudeServer.analysis("sports", "Stand-in headline"));
+        });
+
+        // The first call pays for connection setup and class loading; keep that out of the timing
+        service.analyzeArticleAsync("Warm-up", "Content", List.of("sports"), List.of()).block();
+
+        List<Mono<AiSummarizationService.AiResult>> calls = IntStream.range(0, 12)
+                .mapToObj(i -> service.analyzeArticleAsync("Title " + i, "Content " + i,
+                        List.of("sports", "top-stories"), List.of()))
+                .toList();
+
+        long started = System.nanoTime();
+        CompletableFuture<List<AiSummarizationService.AiResult>> all = Flux.merge(calls).collectList().toFuture();
+        long subscribeMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        List<AiSummarizationService.AiResult> results = all.join();
+
+        // Subscribing returned long before a single response could have arrived
+        assertThat(subscribeMs).isLessThan(RESPONSE_DELAY_MS);
+        assertThat(results).hasSize(12).allSatisfy(result -> {
+            assertThat(result.assignedCategory()).isEqualTo("sports");
+            assertThat(result.shortHeadline()).isEqualTo("Stand-in headline");
+        });
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(13);
+        assertThat(server.maxConcurrent()).isEqualTo(4);
+    }
+
+    @Test
+    void sendsTheAnalysisRulesAsACachedSystemPrefix() {
+        server.on("POST", "/v1/messages", request ->
+                StandInClaudeServer.Response.ok(StandInClaudeServer.analysis("world", "Headline")));
+
+        service.analyzeArticleAsync("Title", "Content", List.of("world"), List.of()).block();
+
+        String body = server.requests().get(0).body();
+        assertThat(body).contains("\"cache_control\":{\"type\":\"ephemeral\"}");
+        assertThat(body).contains("AVAILABLE CATEGORIES: world");
+        assertThat(service.tokenUsage().cacheRead()).isEqualTo(4200);
+    }
+
+    @Test
+    void summarizeFallsBackToTruncationOnAnUnusableAnswer() {
+        server.on("POST", "/v1/messages", request -> StandInClaudeServer.Response.status(400));
+
+        AiSummarizationService.SummaryResult result = service.summarizeAsync(
+                "A title that is a little longer than ten words in total length",
+                "First sentence of the article. Second sentence.").block();
+
+        assertThat(result.shortHeadline()).isEqualTo("A title that is a little longer than ten words");
+        assertThat(result.shortContent()).isEqualTo("First sentence of the article. Second sentence.");
+    }
+}
@@ -0,0 +1,146 @@
+package com.pocketnews.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/** Message Batches mode against a local stand-in batch API. */
+class AiSummarizationServiceBatchTest {
+
+    private static final String BATCH = "/v1/messages/batches/msgbatch_test";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private StandInClaudeServer server;
+    private AiSummarizationService service;
+    // custom_ids of the submitted batch, in submission order
+    private final List<String> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInClaudeServer();
+        service = server.client(8, 100, 60);
+        server.on("POST", "/v1/messages/batches", request -> {
+            for (JsonNode entry : objectMapper.readTree(request.body()).path("requests")) {
+                submitted.add(entry.path("custom_id").asText());
+            }
+            return StandInClaudeServer.Response.ok(batch("in_progress"));
+        });
+        // Per-item calls answer "world", so tests can tell them from batch results ("sports")
+        server.on("POST", "/v1/messages", request ->
+                StandInClaudeServer.Response.ok(StandInClaudeServer.analysis("world", "Per-item headline")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void mapsBatchResultsBackToTheirArticles() {
+        pollAnswers("in_progress", "ended");
+        resultsSucceedFor(i -> true);
+
+        List<AiSummarizationService.AiResult> results = service.analyzeBatch(articles(6), List.of("sports"), List.of());
+
+        assertThat(submitted).containsExactly("article-0", "article-1", "article-2", "article-3", "article-4", "article-5");
+        assertThat(results).hasSize(6);
+        for (int i = 0; i < 6; i++) {
+            assertThat(results.get(i).shortHeadline()).isEqualTo("Batch headline " + i);
+            assertThat(results.get(i).assignedCategory()).isEqualTo("sports");
+        }
+        assertThat(server.count("POST", "/v1/messages")).isZero();
+    }
+
+    @Test
+    void retriesEntriesTheBatchDidNotDeliverPerItem() {
+        pollAnswers("ended");
+        resultsSucceedFor(i -> i != 2 && i != 4);
+
+        List<AiSummarizationService.AiResult> results = service.analyzeBatch(articles(6), List.of("sports"), List.of());
+
+        assertThat(results).extracting(AiSummarizationService.AiResult::assignedCategory)
+                .containsExactly("sports", "sports", "world", "sports", "world", "sports");
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(2);
+    }
+
+    @Test
+    void cancelsALateBatchAndStillCollectsWhatItFinished() {
+        ReflectionTestUtils.setField(service, "batchMaxWaitMinutes", 0L);
+        server.on("POST", BATCH + "/cancel", request -> StandInClaudeServer.Response.ok(batch("canceling")));
+        pollAnswers("canceling", "ended");
+        resultsSucceedFor(i -> i < 3);
+
+        List<AiSummarizationService.AiResult> results = service.analyzeBatch(articles(6), List.of("sports"), List.of());
+
+        assertThat(server.count("POST", BATCH + "/cancel")).isEqualTo(1);
+        assertThat(server.count("GET", BATCH)).isEqualTo(2);
+        assertThat(results).extracting(AiSummarizationService.AiResult::assignedCategory)
+                .containsExactly("sports", "sports", "sports", "world", "world", "world");
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(3);
+    }
+
+    @Test
+    void fallsBackToPerItemCallsWhenTheSubmitFails() {
+        server.on("POST", "/v1/messages/batches", request -> StandInClaudeServer.Response.status(500));
+
+        List<AiSummarizationService.AiResult> results = service.analyzeBatch(articles(5), List.of("sports"), List.of());
+
+        assertThat(results).extracting(AiSummarizationService.AiResult::assignedCategory).containsOnly("world");
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(5);
+    }
+
+    @Test
+    void smallRunsSkipTheBatch() {
+        List<AiSummarizationService.AiResult> results = service.analyzeBatch(articles(4), List.of("sports"), List.of());
+
+        assertThat(results).hasSize(4);
+        assertThat(server.count("POST", "/v1/messages/batches")).isZero();
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(4);
+    }
+
+    // Each poll of the batch returns the next status; the last one repeats
+    private void pollAnswers(String... statuses) {
+        AtomicInteger polls = new AtomicInteger();
+        server.on("GET", BATCH, request -> StandInClaudeServer.Response.ok(
+                batch(statuses[Math.min(polls.getAndIncrement(), statuses.length - 1)])));
+    }
+
+    // Entries for which succeeded is false come back canceled
+    private void resultsSucceedFor(IntPredicate succeeded) {
+        server.on("GET", BATCH + "/results", request -> {
+            StringBuilder lines = new StringBuilder();
+            for (String customId : submitted) {
+                int index = Integer.parseInt(customId.substring("article-".length()));
+                String result = succeeded.test(index)
+                        ? "{\"type\":\"succeeded\",\"message\":"
+                                + StandInClaudeServer.analysis("sports", "Batch headline " + index) + "}"
+                        : "{\"type\":\"canceled\"}";
+                lines.append("{\"custom_id\":\"").append(customId).append("\",\"result\":").append(result).append("}\n");
+            }
+            return StandInClaudeServer.Response.ok(lines.toString());
+        });
+    }
+
+    private String batch(String status) {
+        return "{\"id\":\"msgbatch_test\",\"processing_status\":\"" + status + "\","
+                + "\"results_url\":" + ("ended".equals(status) ? "\"" + server.baseUrl() + BATCH + "/results\"" : "null")
+                + "}";
+    }
+
+    private List<AiSummarizationService.ArticleInput> articles(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new AiSummarizationService.ArticleInput("Article " + i, "Content of article " + i))
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.pocketnews.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/** Rate limiting, circuit breaking and hedging wired into the Claude client. */
+class AiSummarizationServiceResilienceTest {
+
+    private StandInClaudeServer server;
+    private AiSummarizationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        server = new StandInClaudeServer();
+        service = server.client(8, 2, 60);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void a429SlowsTheClientDownAndReportsClaudeUnavailable() {
+        server.on("POST", "/v1/messages", request ->
+                new StandInClaudeServer.Response(429, "{\"type\":\"error\"}", Map.of("retry-after", "1")));
+
+        assertThatThrownBy(this::analyze).isInstanceOf(AiSummarizationService.ClaudeUnavailableException.class);
+
+        assertThat(server.registry().get("pocketnews.claude.rate_limit.rate").gauge().value()).isEqualTo(500);
+        assertThat(server.registry().get("pocketnews.claude.rate_limit.throttled").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void opensTheCircuitAfterRepeatedServerErrors() {
+        server.on("POST", "/v1/messages", request -> StandInClaudeServer.Response.status(529));
+
+        for (int i = 0; i < 3; i++) {
+            assertThatThrownBy(this::analyze).isInstanceOf(AiSummarizationService.ClaudeUnavailableException.class);
+        }
+
+        // The third call failed without reaching the API
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(2);
+        assertThat(server.registry().get("pocketnews.claude.circuit.state").gauge().value()).isEqualTo(2);
+    }
+
+    @Test
+    void aMalformedRequestDoesNotOpenTheCircuit() {
+        server.on("POST", "/v1/messages", request -> StandInClaudeServer.Response.status(400));
+
+        for (int i = 0; i < 3; i++) {
+            // Not an outage: falls back to truncation instead of ClaudeUnavailableException
+            assertThat(analyze().assignedCategory()).isEqualTo("top-stories");
+        }
+
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(3);
+        assertThat(server.registry().get("pocketnews.claude.circuit.state").gauge().value()).isZero();
+    }
+
+    @Test
+    void hedgesASlowRequestAndTakesTheFirstAnswer() {
+        ReflectionTestUtils.setField(service, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(service, "hedgeDelayMs", 200L);
+        AtomicInteger attempts = new AtomicInteger();
+        server.on("POST", "/v1/messages", request -> {
+            if (attempts.incrementAndGet() == 1) Thread.sleep(3000);
+            return StandInClaudeServer.Response.ok(StandInClaudeServer.analysis("sports", "Hedged headline"));
+        });
+
+        long started = System.nanoTime();
+        AiSummarizationService.AiResult result = analyze();
+        long elapsedMs = Duration.ofNanos(System.nanoTime() - started).toMillis();
+
+        assertThat(result.shortHeadline()).isEqualTo("Hedged headline");
+        assertThat(elapsedMs).isLessThan(2000);
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(2);
+        assertThat(server.registry().get("pocketnews.claude.hedges").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void noHedgeWhenTheFirstRequestIsFast() {
+        ReflectionTestUtils.setField(service, "hedgeEnabled", true);
+        ReflectionTestUtils.setField(service, "hedgeDelayMs", 2000L);
+        server.on("POST", "/v1/messages", request ->
+                StandInClaudeServer.Response.ok(StandInClaudeServer.analysis("sports", "Fast headline")));
+
+        assertThat(analyze().shortHeadline()).isEqualTo("Fast headline");
+        assertThat(server.count("POST", "/v1/messages")).isEqualTo(1);
+        assertThat(server.registry().get("pocketnews.claude.hedges").counter().count()).isZero();
+    }
+
+    private AiSummarizationService.AiResult analyze() {
+        return service.analyzeArticle("Title", "Content", List.of("sports"), List.of());
+    }
+}
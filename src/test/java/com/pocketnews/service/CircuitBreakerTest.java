@@ -0,0 +1,103 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_FOR = Duration.ofMillis(200);
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // Only IllegalStateException says something about the dependency's health
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN_FOR,
+            e -> e instanceof IllegalStateException, registry);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    void opensAfterConsecutiveFailuresAndRejectsWithoutCalling() {
+        fail(3);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(stateGauge()).isEqualTo(2);
+
+        assertThatThrownBy(() -> breaker.guard(call(Mono.just("ok"))).block())
+                .isInstanceOf(CircuitBreaker.OpenException.class);
+        assertThat(calls).hasValue(3);
+        assertThat(registry.get("test.transitions").tag("state", "open").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void aSuccessResetsTheFailureCount() {
+        fail(2);
+        breaker.guard(call(Mono.just("ok"))).block();
+        fail(2);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void ignoresErrorsThatDoNotCountAsFailures() {
+        for (int i = 0; i < 5; i++) {
+            breaker.guard(call(Mono.error(new IllegalArgumentException("bad request"))))
+                    .onErrorResume(e -> Mono.empty())
+                    .block();
+        }
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void letsOneProbeThroughAfterTheOpenPeriodAndClosesOnSuccess() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_FOR.toMillis() + 50);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+
+        Disposable probe = breaker.guard(call(Mono.never())).subscribe();
+        assertThatThrownBy(() -> breaker.guard(call(Mono.just("second"))).block())
+                .isInstanceOf(CircuitBreaker.OpenException.class);
+
+        // An abandoned probe hands the slot to the next caller
+        probe.dispose();
+        assertThat(breaker.guard(call(Mono.just("ok"))).block()).isEqualTo("ok");
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(stateGauge()).isZero();
+    }
+
+    @Test
+    void aFailedProbeReopensTheCircuit() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_FOR.toMillis() + 50);
+
+        fail(1);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(registry.get("test.transitions").tag("state", "half_open").counter().count()).isEqualTo(1);
+        assertThat(registry.get("test.transitions").tag("state", "open").counter().count()).isEqualTo(2);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            breaker.guard(call(Mono.error(new IllegalStateException("down"))))
+                    .onErrorResume(IllegalStateException.class, e -> Mono.empty())
+                    .block();
+        }
+    }
+
+    private <T> Mono<T> call(Mono<T> result) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            return result;
+        });
+    }
+
+    private double stateGauge() {
+        return registry.get("test.state").gauge().value();
+    }
+}
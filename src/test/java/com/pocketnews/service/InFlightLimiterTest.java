@@ -0,0 +1,105 @@
+package com.pocketnews.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InFlightLimiterTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final InFlightLimiter limiter = new InFlightLimiter("test", 2, registry);
+
+    @Test
+    void runsAtMostLimitCallsAndStartsWaitersInOrder() {
+        List<Sinks.One<String>> calls = new ArrayList<>();
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        List<String> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            int index = i;
+            Sinks.One<String> call = Sinks.one();
+            calls.add(call);
+            limiter.run(() -> {
+                started.add(index);
+                return call.asMono();
+            }).subscribe(results::add);
+        }
+
+        assertThat(started).containsExactly(0, 1);
+        assertThat(gauge("in_flight")).isEqualTo(2);
+        assertThat(gauge("waiting")).isEqualTo(3);
+
+        calls.get(1).tryEmitValue("b");
+        assertThat(started).containsExactly(0, 1, 2);
+        assertThat(results).containsExactly("b");
+
+        calls.get(0).tryEmitValue("a");
+        calls.get(2).tryEmitValue("c");
+        assertThat(started).containsExactly(0, 1, 2, 3, 4);
+        assertThat(gauge("in_flight")).isEqualTo(2);
+        assertThat(gauge("waiting")).isZero();
+    }
+
+    @Test
+    void freesTheSlotWhenTheCallFails() {
+        Sinks.One<String> failing = Sinks.one();
+        List<Throwable> errors = new ArrayList<>();
+        limiter.run(failing::asMono).subscribe(value -> { }, errors::add);
+        limiter.run(() -> Mono.<String>never()).subscribe();
+        List<String> waiting = new ArrayList<>();
+        limiter.run(() -> Mono.just("next")).subscribe(waiting::add);
+        assertThat(waiting).isEmpty();
+
+        failing.tryEmitError(new IllegalStateException("boom"));
+
+        assertThat(errors).hasSize(1);
+        assertThat(waiting).containsExactly("next");
+    }
+
+    @Test
+    void cancellingARunningCallFreesItsSlot() {
+        Disposable first = limiter.run(() -> Mono.<String>never()).subscribe();
+        limiter.run(() -> Mono.<String>never()).subscribe();
+        List<String> waiting = new ArrayList<>();
+        limiter.run(() -> Mono.just("next")).subscribe(waiting::add);
+
+        first.dispose();
+
+        assertThat(waiting).containsExactly("next");
+        assertThat(gauge("in_flight")).isEqualTo(1);
+    }
+
+    @Test
+    void cancellingAWaitingCallLeavesTheQueueWithoutTakingASlot() {
+        Sinks.One<String> first = Sinks.one();
+        limiter.run(first::asMono).subscribe();
+        limiter.run(() -> Mono.<String>never()).subscribe();
+        List<Integer> started = new CopyOnWriteArrayList<>();
+        Disposable cancelled = limiter.run(() -> {
+            started.add(1);
+            return Mono.just("cancelled");
+        }).subscribe();
+        limiter.run(() -> {
+            started.add(2);
+            return Mono.just("kept");
+        }).subscribe();
+
+        cancelled.dispose();
+        assertThat(gauge("waiting")).isEqualTo(1);
+
+        first.tryEmitValue("done");
+        assertThat(started).containsExactly(2);
+        assertThat(gauge("waiting")).isZero();
+    }
+
+    private double gauge(String name) {
+        return registry.get("test." + name).gauge().value();
+    }
+}
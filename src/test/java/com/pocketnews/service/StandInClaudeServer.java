@@ -0,0 +1,170 @@
+package com.pocketnews.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pocketnews.ReplayStore;
+import com.pocketnews.repository.NewsRepository;
+import com.pocketnews.repository.SummaryCacheRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * A local stand-in for the Anthropic API, so AiSummarizationService can be
+ * tested end to end without a key or network. Each test registers a
+ * {@link Handler} per "METHOD /path"; unregistered routes answer 404.
+ * Records every request and the highest number handled at once.
+ */
+final class StandInClaudeServer implements AutoCloseable {
+
+    /** Status, body and extra headers of a canned response. */
+    record Response(int status, String body, Map<String, String> headers) {
+        static Response ok(String body) {
+            return new Response(200, body, Map.of());
+        }
+
+        static Response status(int status) {
+            return new Response(status, "{\"type\":\"error\"}", Map.of());
+        }
+    }
+
+    record Request(String method, String path, String body) {}
+
+    interface Handler {
+        Response handle(Request request) throws Exception;
+    }
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final Map<String, Handler> routes = new ConcurrentHashMap<>();
+    private final List<Request> requests = new CopyOnWriteArrayList<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    StandInClaudeServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/", this::serve);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    void on(String method, String path, Handler handler) {
+        routes.put(method + " " + path, handler);
+    }
+
+    List<Request> requests() {
+        return requests;
+    }
+
+    long count(String method, String path) {
+        return requests.stream().filter(r -> r.method().equals(method) && r.path().equals(path)).count();
+    }
+
+    int maxConcurrent() {
+        return maxActive.get();
+    }
+
+    SimpleMeterRegistry registry() {
+        return registry;
+    }
+
+    /**
+     * A service pointed at this server: no summary cache, no retries or
+     * hedging, and a rate limit high enough not to get in the way. Tests
+     * adjust the rest with {@link ReflectionTestUtils#setField}.
+     */
+    AiSummarizationService client(int maxInFlight, int failureThreshold, long openSeconds) {
+        SummaryCache summaryCache = new SummaryCache(mock(SummaryCacheRepository.class), mock(NewsRepository.class),
+                registry, false, 10, 1);
+        ReplayStore replayStore = new ReplayStore("off", "unused", 0, 0, 0, 0);
+        AiSummarizationService service = new AiSummarizationService(WebClient.builder(), new ObjectMapper(),
+                replayStore, summaryCache, registry,
+                maxInFlight, maxInFlight, 10, 30,
+                1000, 1, 1, 1000,
+                failureThreshold, openSeconds);
+        ReflectionTestUtils.setField(service, "apiKey", "test-key");
+        ReflectionTestUtils.setField(service, "baseUrl", baseUrl());
+        ReflectionTestUtils.setField(service, "maxRetries", 0);
+        ReflectionTestUtils.setField(service, "hedgeEnabled", false);
+        ReflectionTestUtils.setField(service, "hedgeDelayMs", 8000L);
+        ReflectionTestUtils.setField(service, "batchMinItems", 5);
+        ReflectionTestUtils.setField(service, "batchPollSeconds", 1L);
+        ReflectionTestUtils.setField(service, "batchMaxWaitMinutes", 60L);
+        return service;
+    }
+
+    /** A Messages API response whose text is an analysis in the format the prompt asks for. */
+    static String analysis(String category, String headline) {
+        String text = "CATEGORY: " + category + "\nDUPLICATE: NO\nSHORT_HEADLINE: " + headline
+                + "\nSHORT_CONTENT: " + "Stand-in summary words for the article. ".repeat(8).trim();
+        return message(text);
+    }
+
+    static String message(String text) {
+        return "{\"content\":[{\"type\":\"text\",\"text\":" + quote(text) + "}],"
+                + "\"usage\":{\"input_tokens\":120,\"cache_read_input_tokens\":4200,"
+                + "\"cache_creation_input_tokens\":0,\"output_tokens\":90}}";
+    }
+
+    static String quote(String text) {
+        try {
+            return new ObjectMapper().writeValueAsString(text);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        try {
+            Request request = new Request(exchange.getRequestMethod(), exchange.getRequestURI().getPath(),
+                    new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            requests.add(request);
+            Handler handler = routes.get(request.method() + " " + request.path());
+            Response response;
+            // Counted only while the handler runs, so the client's next request can't overlap the tail of this one
+            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                response = handler != null ? handler.handle(request) : Response.status(404);
+            } catch (Exception e) {
+                response = Response.status(500);
+            } finally {
+                active.decrementAndGet();
+            }
+            byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            response.headers().forEach(exchange.getResponseHeaders()::set);
+            exchange.sendResponseHeaders(response.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,112 @@
+package com.pocketnews.service;
+
+import com.pocketnews.ReplayStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs ThumbnailService against the image fixtures in src/test/resources/images,
+ * served through ReplayStore so no network is involved.
+ */
+class ThumbnailServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private ThumbnailService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReplayStore recorder = new ReplayStore("record", dir.resolve("replay").toString(), 0, 0, 0, 0);
+        for (String name : new String[]{"landscape.jpg", "small.png", "bomb.png", "unsupported.webp"}) {
+            recorder.record(ReplayStore.Kind.IMAGE, urlOf(name), fixture(name));
+        }
+        ReplayStore replay = new ReplayStore("replay", dir.resolve("replay").toString(), 0, 0, 0, 0);
+        service = new ThumbnailService(replay, dir.resolve("thumbnails").toString(), "/api",
+                320, 0.75f, 5 * 1024 * 1024, 40_000_000, 2);
+    }
+
+    @Test
+    void storesResizedThumbnailUnderItsContentHash() throws IOException {
+        ThumbnailService.Thumbnail thumbnail = service.generate(urlOf("landscape.jpg")).orElseThrow();
+
+        assertThat(thumbnail.hash()).matches("[0-9a-f]{64}");
+        assertThat(thumbnail.blurHash()).isNotBlank();
+        Path file = service.find(thumbnail.hash()).orElseThrow();
+        BufferedImage stored = ImageIO.read(file.toFile());
+        assertThat(stored.getWidth()).isEqualTo(320);
+        assertThat(stored.getHeight()).isEqualTo(180);
+    }
+
+    @Test
+    void sameImageIsStoredOnce() {
+        String first = service.generate(urlOf("landscape.jpg")).orElseThrow().hash();
+        String second = service.generate(urlOf("landscape.jpg")).orElseThrow().hash();
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void doesNotUpscaleSmallImages() throws IOException {
+        ThumbnailService.Thumbnail thumbnail = service.generate(urlOf("small.png")).orElseThrow();
+
+        BufferedImage stored = ImageIO.read(service.find(thumbnail.hash()).orElseThrow().toFile());
+        assertThat(stored.getWidth()).isEqualTo(120);
+        assertThat(stored.getHeight()).isEqualTo(90);
+    }
+
+    @Test
+    void rejectsOversizedDimensionsBeforeDecoding() {
+        assertThatThrownBy(() -> service.decode(fixture("bomb.png")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("50000x50000");
+        assertThat(service.generate(urlOf("bomb.png"))).isEmpty();
+    }
+
+    @Test
+    void skipsUnsupportedFormats() throws IOException {
+        assertThat(service.decode(fixture("unsupported.webp"))).isNull();
+        assertThat(service.generate(urlOf("unsupported.webp"))).isEmpty();
+    }
+
+    @Test
+    void missingImageYieldsNoThumbnail() {
+        assertThat(service.generate(urlOf("missing.jpg"))).isEmpty();
+        assertThat(service.generate(null)).isEmpty();
+    }
+
+    @Test
+    void urlIncludesContextPath() {
+        assertThat(service.urlOf("ab".repeat(32))).isEqualTo("/api/images/" + "ab".repeat(32) + ".jpg");
+        assertThat(service.urlOf(null)).isNull();
+    }
+
+    @Test
+    void findRejectsMalformedHashes() throws IOException {
+        Files.createDirectories(dir.resolve("thumbnails"));
+        assertThat(service.find("../../etc/passwd")).isEqualTo(Optional.empty());
+        assertThat(service.find("ABC")).isEmpty();
+    }
+
+    private static String urlOf(String name) {
+        return "https://images.example.com/" + name;
+    }
+
+    private static byte[] fixture(String name) throws IOException {
+        try (InputStream in = ThumbnailServiceTest.class.getResourceAsStream("/images/" + name)) {
+            return in.readAllBytes();
+        }
+    }
+}